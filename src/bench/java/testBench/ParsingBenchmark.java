@@ -0,0 +1,133 @@
+package testBench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import io.qameta.allure.internal.shadowed.jackson.databind.JsonNode;
+import io.qameta.allure.internal.shadowed.jackson.databind.ObjectMapper;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import testSupport.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Разбор ответов: JsonPath, response.jsonPath(), Gson JsonParser, Jackson из Allure и ApiResponse, которым пользуются хелперы.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+    @Param({"30", "5000"})
+    public int orders;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String createdOrder;
+    private String orderList;
+    private Response createdOrderResponse;
+    private String courierLogin;
+    private Response courierLoginResponse;
+    private Response courierCreatedResponse;
+    private Response courierNotFoundResponse;
+
+    @Setup
+    public void setUp() {
+        createdOrder = Payloads.createdOrder();
+        orderList = Payloads.orderList(orders);
+        createdOrderResponse = new ResponseBuilder()
+                .setStatusCode(201)
+                .setContentType(ContentType.JSON)
+                .setBody(createdOrder)
+                .build();
+        courierLogin = Payloads.courierId();
+        courierLoginResponse = response(200, courierLogin);
+        courierCreatedResponse = response(201, Payloads.courierCreated());
+        courierNotFoundResponse = response(404, Payloads.courierNotFound());
+    }
+
+    private static Response response(int status, String body) {
+        return new ResponseBuilder()
+                .setStatusCode(status)
+                .setContentType(ContentType.JSON)
+                .setBody(body)
+                .build();
+    }
+
+    @Benchmark
+    public Object trackJsonPath() {
+        return new JsonPath(createdOrder).get("track");
+    }
+
+    @Benchmark
+    public Object trackResponseJsonPath() {
+        return createdOrderResponse.jsonPath().get("track");
+    }
+
+    @Benchmark
+    public int trackGson() {
+        return JsonParser.parseString(createdOrder).getAsJsonObject().get("track").getAsInt();
+    }
+
+    @Benchmark
+    public int trackAllureJackson() throws Exception {
+        return objectMapper.readTree(createdOrder).get("track").asInt();
+    }
+
+    @Benchmark
+    public Object courierIdJsonPath() {
+        return new JsonPath(courierLogin).get("id");
+    }
+
+    @Benchmark
+    public int courierIdGson() {
+        return JsonParser.parseString(courierLogin).getAsJsonObject().get("id").getAsInt();
+    }
+
+    @Benchmark
+    public Integer courierIdApiResponse() {
+        return ApiResponse.of(courierLoginResponse).courierId();
+    }
+
+    @Benchmark
+    public Boolean courierCreatedApiResponse() {
+        return ApiResponse.of(courierCreatedResponse).ok();
+    }
+
+    @Benchmark
+    public String courierNotFoundApiResponse() {
+        return ApiResponse.of(courierNotFoundResponse).message();
+    }
+
+    @Benchmark
+    public int orderListJsonPath() {
+        List<Map<String, Object>> list = new JsonPath(orderList).getList("orders");
+        return list.size();
+    }
+
+    @Benchmark
+    public int orderListGson() {
+        JsonArray list = JsonParser.parseString(orderList).getAsJsonObject().getAsJsonArray("orders");
+        return list.size();
+    }
+
+    @Benchmark
+    public int orderListAllureJackson() throws Exception {
+        JsonNode list = objectMapper.readTree(orderList).get("orders");
+        return list.size();
+    }
+}
@@ -0,0 +1,70 @@
+package testBench;
+
+import com.google.gson.Gson;
+import testOrder.CreateOrder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Тела запросов и ответов, близкие к тому, что отдаёт API самоката.
+public class Payloads {
+    private static final Gson GSON = new Gson();
+
+    public static CreateOrder order(int i) {
+        return new CreateOrder("Света", "Светова", "Светлая, " + (i + 1), String.valueOf(i % 200 + 1),
+                "+7 777 777 77 77", "2024-11-01", "Звоните в домофон, код " + i,
+                new String[]{"BLACK", "GRAY"}, i % 7 + 1);
+    }
+
+    public static String createdOrder() {
+        return "{\"track\":724931}";
+    }
+
+    // Ответ на логин курьера
+    public static String courierId() {
+        return "{\"id\":356789}";
+    }
+
+    public static String courierCreated() {
+        return "{\"ok\":true}";
+    }
+
+    public static String courierNotFound() {
+        return "{\"code\":404,\"message\":\"Учетная запись не найдена\"}";
+    }
+
+    public static String orderList(int size) {
+        List<Map<String, Object>> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> order = new LinkedHashMap<>();
+            CreateOrder source = order(i);
+            order.put("id", 500000 + i);
+            order.put("courierId", null);
+            order.put("firstName", source.getFirstName());
+            order.put("lastName", source.getLastName());
+            order.put("address", source.getAddress());
+            order.put("metroStation", source.getMetroStation());
+            order.put("phone", source.getPhone());
+            order.put("rentTime", source.getRentTime());
+            order.put("deliveryDate", "2024-11-01T00:00:00.000Z");
+            order.put("track", 700000 + i);
+            order.put("color", source.getColor());
+            order.put("comment", source.getComment());
+            order.put("createdAt", "2024-10-20T12:00:00.000Z");
+            order.put("updatedAt", "2024-10-20T12:00:00.000Z");
+            order.put("status", 0);
+            orders.add(order);
+        }
+        Map<String, Object> pageInfo = new LinkedHashMap<>();
+        pageInfo.put("page", 0);
+        pageInfo.put("total", size);
+        pageInfo.put("limit", size);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("orders", orders);
+        body.put("pageInfo", pageInfo);
+        body.put("availableStations", new ArrayList<>());
+        return GSON.toJson(body);
+    }
+}
@@ -0,0 +1,65 @@
+package testBench;
+
+import com.google.gson.Gson;
+import io.qameta.allure.internal.shadowed.jackson.databind.ObjectMapper;
+import io.restassured.config.EncoderConfig;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.internal.mapping.ObjectMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import testLogin.CourierLoginTest.CourierAssistant;
+import testOrder.CreateOrder;
+
+import java.util.concurrent.TimeUnit;
+
+// Сборка тел запросов теми способами, которые используются в тестах.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private final CourierAssistant courierAssistant = new CourierAssistant();
+    private final Gson gson = new Gson();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapperConfig objectMapperConfig = ObjectMapperConfig.objectMapperConfig();
+    private final EncoderConfig encoderConfig = EncoderConfig.encoderConfig();
+    private CreateOrder order;
+
+    @Setup
+    public void setUp() {
+        order = Payloads.order(1);
+    }
+
+    // createRequestBody: конкатенация строк
+    @Benchmark
+    public String courierBodyConcatenation() {
+        return courierAssistant.createRequestBody("at1k2f0n17", "1234", "Курьер");
+    }
+
+    // .body(createOrder): маппер REST-assured (при отсутствии Jackson это Gson)
+    @Benchmark
+    public String orderBodyRestAssuredMapper() {
+        return ObjectMapping.serialize(order, "application/json", "UTF-8", null, objectMapperConfig, encoderConfig);
+    }
+
+    @Benchmark
+    public String orderBodyGson() {
+        return gson.toJson(order);
+    }
+
+    // ObjectMapper из Allure, как в getAllOrders
+    @Benchmark
+    public String orderBodyAllureJackson() throws Exception {
+        return objectMapper.writeValueAsString(order);
+    }
+}
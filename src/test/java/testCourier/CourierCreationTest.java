@@ -6,10 +6,16 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import io.qameta.allure.*;
 import io.restassured.RestAssured;
-import io.restassured.response.Response;
 import org.junit.After;
+import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Test;
+import testOrder.Specific;
+import testSupport.ApiResponse;
+import testSupport.Diagnostics;
+import testSupport.Fixtures;
+import testSupport.IdCache;
+import testSupport.UniqueIds;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -24,15 +30,17 @@ public class CourierCreationTest {
 
     @Before
     public void setUp() {
-        RestAssured.baseURI = "https://qa-scooter.praktikum-services.ru/";
         gson = new GsonBuilder().setPrettyPrinting().create();
     }
 
     @After
     public void tearDown() {
-        if (courierId != -1) {
-            deleteCourier(courierId);
-        }
+        Fixtures.courier(CourierCreationTest.class, courierId);
+    }
+
+    @AfterClass
+    public static void releaseFixtures() {
+        Fixtures.release(CourierCreationTest.class);
     }
 
     private String formatResponseBody(String responseBody) {
@@ -41,12 +49,12 @@ public class CourierCreationTest {
         return gson.toJson(jsonElement);
     }
 
-    private void checkStatusCode(Response response, int expectedStatusCode) {
-        assertThat(response.getStatusCode(), is(expectedStatusCode));
+    private void checkStatusCode(ApiResponse response, int expectedStatusCode) {
+        assertThat(response.statusCode(), is(expectedStatusCode));
     }
 
-    private void checkErrorMessage(Response response, String expectedMessage) {
-        assertThat(response.jsonPath().getString("message"), is(expectedMessage));
+    private void checkErrorMessage(ApiResponse response, String expectedMessage) {
+        assertThat(response.message(), is(expectedMessage));
     }
 
     private String createRequestBody(String login, String password, String firstName) {
@@ -54,33 +62,25 @@ public class CourierCreationTest {
     }
 
     private int getCourierId(String login, String password) {
-        Response response = RestAssured.given()
+        Integer cached = IdCache.courierId(login, password);
+        if (cached != null) {
+            return cached;
+        }
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body("{ \"login\": \"" + login + "\", \"password\": \"" + password + "\" }")
                 .when()
-                .post("/api/v1/courier/login");
-        if (response.getStatusCode() == 200) {
-            return response.jsonPath().getInt("id");
+                .post("/api/v1/courier/login"));
+        if (response.statusCode() == 200) {
+            return response.courierId();
         } else {
             return -1;
         }
     }
 
-    private void deleteCourier(int courierId) {
-        RestAssured.given()
-                .header("Content-Type", "application/json")
-                .when()
-                .delete("/api/v1/courier/" + courierId)
-                .then()
-                .statusCode(200); // Ожидаем успешное удаление курьера
-        System.out.println("Курьер с ID " + courierId + " был удален.");
-    }
-
-    private void printResponse(Response response) {
-        String responseBody = response.getBody().asString();
-        String formattedJson = formatResponseBody(responseBody);
-        System.out.println("Код ответа: " + response.getStatusCode());
-        System.out.println("Тело ответа: " + formattedJson);
+    private void printResponse(ApiResponse response) {
+        Diagnostics.info(() -> "Код ответа: " + response.statusCode() + "\nТело ответа: " + formatResponseBody(response.body()));
     }
 
     @Test
@@ -88,16 +88,17 @@ public class CourierCreationTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that creating a new courier is possible and returns the correct response")
     public void testCreateCourierIsPossible() {
-        String login = "gali";
+        String login = UniqueIds.login();
         String password = "1234";
         String body = createRequestBody(login, password, "ytut");
-        Response response = RestAssured.given()
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(body)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
         checkStatusCode(response, 201);
-        assertThat(response.jsonPath().get("ok"), is(true));
+        assertThat(response.ok(), is(true));
 
         courierId = getCourierId(login, password);
         assertThat(courierId, is(not(-1)));
@@ -108,21 +109,23 @@ public class CourierCreationTest {
     @Severity(SeverityLevel.NORMAL)
     @Description("Verify that creating a courier with the same login returns an error")
     public void testErrorCreateTheSameCourier() {
-        String login = "gali"; // Логин
+        String login = UniqueIds.login(); // Логин
         String password = "1234"; // Пароль
         String body = createRequestBody(login, password, "ytut");
-        Response firstResponse = RestAssured.given()
+        ApiResponse firstResponse = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(body)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
         checkStatusCode(firstResponse, 201);
-        System.out.println("Курьер успешно создан. Код ответа: " + firstResponse.getStatusCode());
-        Response secondResponse = RestAssured.given()
+        Diagnostics.info(() -> "Курьер успешно создан. Код ответа: " + firstResponse.statusCode());
+        ApiResponse secondResponse = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(body)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
         printResponse(secondResponse);
         checkStatusCode(secondResponse, 409);
         String expectedMessage = "Этот логин уже используется. Попробуйте другой.";
@@ -135,17 +138,18 @@ public class CourierCreationTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Чтобы создать курьера, нужно передать в ручку все обязательные поля")
     public void testCreateCourierWithAllRequiredFields() {
-        String login = "galy";
+        String login = UniqueIds.login();
         String password = "1234";
         String body = createRequestBody(login, password, "ytut");
-        Response response = RestAssured.given()
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(body)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
         printResponse(response);
         checkStatusCode(response, 201);
-        assertThat(response.jsonPath().get("ok"), is(true));
+        assertThat(response.ok(), is(true));
         courierId = getCourierId(login, password);
         assertThat(courierId, is(not(-1)));
     }
@@ -154,16 +158,17 @@ public class CourierCreationTest {
     @Severity(SeverityLevel.MINOR)
     @Description("Запрос создание курьера, возвращает правильный код ответа")
     public void testCreateCourier() {
-        String login = "galu"; // Логин
+        String login = UniqueIds.login(); // Логин
         String password = "1234"; // Пароль
         String body = createRequestBody(login, password, "ytut");
-        Response response = RestAssured.given()
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(body)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
 
-        System.out.println("Код ответа: " + response.getStatusCode());
+        Diagnostics.info(() -> "Код ответа: " + response.statusCode());
         checkStatusCode(response, 201);
 
         courierId = getCourierId(login, password); // Сохраняем ID курьера
@@ -176,16 +181,17 @@ public class CourierCreationTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Успешный запрос создания курьера, возвращает ok: true")
     public void testCreateCourierOkTrue() {
-        String login = "qazhof";
+        String login = UniqueIds.login();
         String password = "1234";
         String body = createRequestBody(login, password, "saske");
-        Response response = RestAssured.given()
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(body)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
         printResponse(response);
-        assertThat(response.jsonPath().get("ok"), is(true));
+        assertThat(response.ok(), is(true));
         courierId = getCourierId(login, password);
         assertThat(courierId, is(not(-1)));
     }
@@ -196,14 +202,15 @@ public class CourierCreationTest {
     public void testCreateCourierWithoutLogin() {
         String bodyWithoutLogin = "{ \"password\": \"1234\", \"firstName\": \"ytut\" }";
         String expectedMessage = "Недостаточно данных для создания учетной записи";
-        Response response = RestAssured.given()
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(bodyWithoutLogin)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
         printResponse(response);
         checkStatusCode(response, 400);
-        System.out.println("Курьер не создан: пропущено поле login");
+        Diagnostics.info(() -> "Курьер не создан: пропущено поле login");
         checkErrorMessage(response, expectedMessage);
     }
     @Test
@@ -211,17 +218,18 @@ public class CourierCreationTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Если одного из полей нет, запрос возвращает ошибку. Пропущено поле password")
     public void testCreateCourierWithoutPassword() {
-        String login = "galy" + System.currentTimeMillis();
+        String login = UniqueIds.login();
         String bodyWithoutPassword = "{ \"login\": \"" + login + "\", \"firstName\": \"ytut\" }";
         String expectedMessage = "Недостаточно данных для создания учетной записи";
-        Response response = RestAssured.given()
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(bodyWithoutPassword)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
         printResponse(response);
         checkStatusCode(response, 400);
-        System.out.println("Курьер не создан: пропущено поле password");
+        Diagnostics.info(() -> "Курьер не создан: пропущено поле password");
         checkErrorMessage(response, expectedMessage);
     }
     @Test
@@ -229,17 +237,18 @@ public class CourierCreationTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Если одного из полей нет, запрос возвращает ошибку. Пропущено поле firstName")
     public void testCreateCourierWithoutFirstName() {
-        String login = "galy" + System.currentTimeMillis();
+        String login = UniqueIds.login();
         String bodyWithoutFirstName = "{ \"login\": \"" + login + "\", \"password\": \"1234\" }";
         String expectedMessage = "Недостаточно данных для создания учетной записи";
-        Response response = RestAssured.given()
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(bodyWithoutFirstName)
                 .when()
-                .post("/api/v1/courier");
+                .post("/api/v1/courier"));
         printResponse(response);
         checkStatusCode(response, 400);
-        System.out.println("Курьер не создан: пропущено поле firstName");
+        Diagnostics.info(() -> "Курьер не создан: пропущено поле firstName");
         checkErrorMessage(response, expectedMessage);
     }
 }
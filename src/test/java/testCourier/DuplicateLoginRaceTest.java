@@ -0,0 +1,135 @@
+package testCourier;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.junit4.DisplayName;
+import io.restassured.RestAssured;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.AfterClass;
+import org.junit.Test;
+import testLogin.CourierLoginTest.CourierAssistant;
+import testOrder.Specific;
+import testSupport.ApiResponse;
+import testSupport.Diagnostics;
+import testSupport.Fixtures;
+import testSupport.UniqueIds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+// Гонка регистрации: race.clients (по умолчанию 8) одновременных POST /api/v1/courier с одним логином,
+// выпущенных общим стартовым сигналом, повторяется для race.logins (по умолчанию 20) разных логинов.
+// Ровно один запрос должен получить 201, остальные - 409 с сообщением о занятом логине.
+// Пропускная способность и хвост задержек под конкуренцией прикладываются к отчёту Allure; первые race.warmup (1) логинов
+// проверяются, но в замер не идут - там холодный старт JVM и пула соединений.
+// race.clients больше http.pool.size смысла не имеет: лишние запросы ждут соединение из пула.
+@Epic("Courier Management")
+@Feature("Создание курьера")
+public class DuplicateLoginRaceTest {
+    private static final String PASSWORD = "1234";
+    private static final String DUPLICATE_MESSAGE = "Этот логин уже используется. Попробуйте другой.";
+
+    @AfterClass
+    public static void releaseFixtures() {
+        Fixtures.release(DuplicateLoginRaceTest.class);
+    }
+
+    @Test
+    @DisplayName("Одновременная регистрация одного логина: ровно один 201, остальные 409")
+    public void onlyOneOfSimultaneousRegistrationsWins() throws Exception {
+        int clients = Math.max(2, Integer.getInteger("race.clients", 8));
+        int logins = Math.max(1, Integer.getInteger("race.logins", 20));
+        int warmup = Math.max(0, Integer.getInteger("race.warmup", 1));
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(clients, runnable -> {
+            Thread thread = new Thread(runnable, "race-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ConcurrentHistogram latency = new ConcurrentHistogram(3);
+        List<String> failures = new ArrayList<>();
+        CourierAssistant courierAssistant = new CourierAssistant();
+        long busyNanos = 0;
+        try {
+            for (int round = 0; round < warmup + logins; round++) {
+                boolean measured = round >= warmup;
+                String login = UniqueIds.login();
+                String body = courierAssistant.createRequestBody(login, PASSWORD, "race");
+                CountDownLatch ready = new CountDownLatch(clients);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<ApiResponse>> responses = new ArrayList<>();
+                for (int i = 0; i < clients; i++) {
+                    responses.add(executor.submit(() -> {
+                        ready.countDown();
+                        start.await();
+                        long started = System.nanoTime();
+                        ApiResponse response = ApiResponse.of(RestAssured.given()
+                                .spec(Specific.requestSpec())
+                                .body(body)
+                                .post("/api/v1/courier"));
+                        response.body();
+                        if (measured) {
+                            latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started)));
+                        }
+                        return response;
+                    }));
+                }
+                ready.await();
+                long released = System.nanoTime();
+                start.countDown();
+                int created = 0;
+                int conflicts = 0;
+                List<String> unexpected = new ArrayList<>();
+                for (Future<ApiResponse> future : responses) {
+                    ApiResponse response = future.get(1, TimeUnit.MINUTES);
+                    if (response.statusCode() == 201) {
+                        created++;
+                    } else if (response.statusCode() == 409 && DUPLICATE_MESSAGE.equals(response.message())) {
+                        conflicts++;
+                    } else {
+                        unexpected.add(response.statusCode() + " " + response.body());
+                    }
+                }
+                if (measured) {
+                    busyNanos += System.nanoTime() - released;
+                }
+                if (created > 0) {
+                    int courierId = courierAssistant.getCourierId(login, PASSWORD);
+                    if (courierId != -1) {
+                        Fixtures.courier(DuplicateLoginRaceTest.class, courierId);
+                    }
+                }
+                if (created != 1 || conflicts != clients - 1) {
+                    failures.add(login + ": 201 - " + created + ", 409 - " + conflicts + ", прочие - " + unexpected);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        String report = report(clients, logins, latency, busyNanos);
+        Diagnostics.info(() -> report);
+        Allure.addAttachment("Гонка регистрации", "text/plain", report, "txt");
+        assertThat("Логины, где регистрацию выиграл не ровно один клиент", failures, empty());
+    }
+
+    private static String report(int clients, int logins, Histogram latency, long busyNanos) {
+        double seconds = Math.max(1e-9, busyNanos / 1e9);
+        return String.format("Клиентов на логин: %d, логинов: %d, запросов: %d%n"
+                        + "Пропускная способность под конкуренцией: %.1f запросов/с%n"
+                        + "Задержка, мс: p50 %.2f, p95 %.2f, p99 %.2f, max %.2f%n",
+                clients, logins, latency.getTotalCount(), latency.getTotalCount() / seconds,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(95) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0, latency.getMaxValue() / 1000.0);
+    }
+}
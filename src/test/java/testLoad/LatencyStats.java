@@ -0,0 +1,126 @@
+package testLoad;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+
+// Задержки по эндпоинтам в микросекундах. Память ограничена размером гистограмм и не растёт с числом запросов.
+public class LatencyStats {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> totals = new TreeMap<>();
+
+    public void record(String endpoint, long nanos) {
+        recorders.computeIfAbsent(endpoint, key -> new Recorder(SIGNIFICANT_DIGITS))
+                .recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    public void error(String endpoint) {
+        errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+
+    public long errors(String endpoint) {
+        LongAdder adder = errors.get(endpoint);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long totalErrors() {
+        long total = 0;
+        for (LongAdder adder : errors.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    // Забирает накопленное с прошлого вызова и добавляет к итоговым гистограммам
+    public synchronized Map<String, Histogram> interval() {
+        Map<String, Histogram> interval = new TreeMap<>();
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            interval.put(entry.getKey(), histogram);
+            totals.computeIfAbsent(entry.getKey(), key -> new Histogram(SIGNIFICANT_DIGITS)).add(histogram);
+        }
+        return interval;
+    }
+
+    public synchronized Map<String, Histogram> total() {
+        interval();
+        Map<String, Histogram> copy = new TreeMap<>();
+        for (Map.Entry<String, Histogram> entry : totals.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copy;
+    }
+
+    // Готовая гистограмма с другого генератора нагрузки (LoadCoordinator сливает результаты воркеров)
+    public synchronized void add(String endpoint, Histogram histogram) {
+        totals.computeIfAbsent(endpoint, key -> new Histogram(SIGNIFICANT_DIGITS)).add(histogram);
+    }
+
+    public void error(String endpoint, long count) {
+        errors.computeIfAbsent(endpoint, key -> new LongAdder()).add(count);
+    }
+
+    public Map<String, Long> errorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : errors.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+
+    // Сжатая гистограмма в base64 для передачи между процессами
+    public static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    public static Histogram decode(String encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Ошибка чтения гистограммы: " + e.getMessage());
+        }
+    }
+
+    public String report(String title, Map<String, Histogram> histograms, double seconds) {
+        StringBuilder report = new StringBuilder(title).append(String.format(" (%.1f с)%n", seconds));
+        report.append(String.format("%-28s %9s %9s %8s %8s %8s %8s %9s %7s%n",
+                "эндпоинт", "запросов", "rps", "p50,мс", "p90,мс", "p99,мс", "p99.9,мс", "max,мс", "ошибок"));
+        Set<String> endpoints = new TreeSet<>(histograms.keySet());
+        endpoints.addAll(errors.keySet());
+        for (String endpoint : endpoints) {
+            Histogram histogram = histograms.containsKey(endpoint) ? histograms.get(endpoint) : new Histogram(SIGNIFICANT_DIGITS);
+            report.append(String.format("%-28s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %9.2f %7d%n",
+                    endpoint,
+                    histogram.getTotalCount(),
+                    seconds > 0 ? histogram.getTotalCount() / seconds : 0.0,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    errors(endpoint)));
+        }
+        return report.toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
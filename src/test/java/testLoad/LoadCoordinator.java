@@ -0,0 +1,219 @@
+package testLoad;
+
+import org.HdrHistogram.Histogram;
+import testSupport.Diagnostics;
+import testSupport.ScooterStub;
+import testSupport.Target;
+import testSupport.UniqueIds;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Распределённая открытая нагрузка: координатор делит load.rate поровну между load.workers воркерами (LoadWorker),
+// дожидается их готовности, запускает одновременно и сливает гистограммы задержек и ошибки в один отчёт.
+// Воркеры - отдельные JVM со своим сетевым стеком и пулом соединений, общаются с координатором по TCP.
+// Локально (по умолчанию) координатор сам запускает воркеров на loopback:
+//   mvn -Pload test-compile exec:java -Dload.main=testLoad.LoadCoordinator -Dload.workers=4 -Dload.rate=800 -Dload.duration=60
+// На нескольких машинах: координатор с -Dload.spawn=false -Dload.port=7711, на каждой машине
+//   mvn -Pload test-compile exec:java -Dload.main=testLoad.LoadWorker -Dload.coordinator=host:7711
+// Адрес API, id запуска и номер форка для уникальных логинов воркеры получают от координатора.
+// Встроенная заглушка поднимается в координаторе и слушает только loopback, поэтому с другими машинами нужен -Dscooter.target.
+public class LoadCoordinator {
+    static final String READY = "READY";
+    static final String GO = "GO";
+    static final String RESULT = "RESULT";
+    static final int FIRST_WORKER_FORK = 100;
+
+    public static void main(String[] args) throws Exception {
+        int workers = Math.max(1, Integer.getInteger("load.workers", 2));
+        double rate = Double.parseDouble(System.getProperty("load.rate", "100"));
+        String mix = System.getProperty("load.mix", OpenLoopRunner.DEFAULT_MIX);
+        int duration = Integer.getInteger("load.duration", 60);
+        boolean spawn = Boolean.parseBoolean(System.getProperty("load.spawn", "true"));
+        int port = Integer.getInteger("load.port", spawn ? 0 : 7711);
+        OpenLoopRunner.parseMix(mix);
+        // Один id запуска на все воркеры: логины не пересекаются за счёт разных номеров форка
+        if (System.getProperty(UniqueIds.RUN_ID_PROPERTY) == null) {
+            System.setProperty(UniqueIds.RUN_ID_PROPERTY, UniqueIds.newRunId());
+        }
+
+        String target = Target.baseUri();
+        List<Process> processes = new ArrayList<>();
+        List<Socket> sockets = new ArrayList<>();
+        ExecutorService readers = Executors.newFixedThreadPool(workers);
+        try (ServerSocket server = spawn ? new ServerSocket(port, workers, InetAddress.getLoopbackAddress()) : new ServerSocket(port, workers)) {
+            server.setSoTimeout((int) TimeUnit.SECONDS.toMillis(Integer.getInteger("load.connectTimeout", 120)));
+            System.out.println("Координатор нагрузки на порту " + server.getLocalPort() + ": " + workers + " воркеров по "
+                    + rate / workers + " запросов/с, смесь " + mix + ", цель " + target);
+            if (spawn) {
+                for (int i = 0; i < workers; i++) {
+                    processes.add(spawnWorker(server.getLocalPort()));
+                }
+            }
+            List<DataInputStream> inputs = new ArrayList<>();
+            List<DataOutputStream> outputs = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Socket socket = server.accept();
+                sockets.add(socket);
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                String name = in.readUTF();
+                out.writeUTF(target);
+                out.writeUTF(System.getProperty(UniqueIds.RUN_ID_PROPERTY));
+                out.writeInt(FIRST_WORKER_FORK + i);
+                out.writeDouble(rate / workers);
+                out.writeUTF(mix);
+                out.writeInt(duration);
+                out.flush();
+                inputs.add(in);
+                outputs.add(out);
+                System.out.println("Воркер " + (i + 1) + " подключён: " + name);
+            }
+            // Старт в ногу: GO уходит всем сразу, когда каждый воркер подготовился
+            for (DataInputStream in : inputs) {
+                expect(in, READY);
+            }
+            for (DataOutputStream out : outputs) {
+                out.writeUTF(GO);
+                out.flush();
+            }
+            List<Future<WorkerResult>> results = new ArrayList<>();
+            for (DataInputStream in : inputs) {
+                results.add(readers.submit(() -> WorkerResult.read(in)));
+            }
+            LatencyStats merged = new LatencyStats();
+            long sent = 0;
+            double seconds = 0;
+            for (int i = 0; i < results.size(); i++) {
+                WorkerResult result = results.get(i).get(duration + 300L, TimeUnit.SECONDS);
+                for (Map.Entry<String, Histogram> entry : result.histograms.entrySet()) {
+                    merged.add(entry.getKey(), entry.getValue());
+                }
+                for (Map.Entry<String, Long> entry : result.errors.entrySet()) {
+                    merged.error(entry.getKey(), entry.getValue());
+                }
+                sent += result.sent;
+                seconds = Math.max(seconds, result.seconds);
+                System.out.println(String.format("Воркер %d: отправлено %d за %.1f с, ошибок %d",
+                        i + 1, result.sent, result.seconds, result.errors.values().stream().mapToLong(Long::longValue).sum()));
+            }
+            System.out.println(merged.report("Итого по " + workers + " воркерам, отправлено: " + sent, merged.total(), seconds));
+            if (merged.totalErrors() > 0) {
+                System.out.println("Ошибки есть: подробности в выводе воркеров");
+            }
+        } finally {
+            readers.shutdownNow();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            for (Process process : processes) {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+            ScooterStub.stopShared();
+        }
+    }
+
+    static void expect(DataInputStream in, String message) throws IOException {
+        String received = in.readUTF();
+        if (!message.equals(received)) {
+            throw new IOException("Ожидалось " + message + ", получено " + received);
+        }
+    }
+
+    private static Process spawnWorker(int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(classpath());
+        command.add("-Dload.coordinator=127.0.0.1:" + port);
+        for (String property : new String[]{Diagnostics.LEVEL_PROPERTY, Diagnostics.SAMPLE_PROPERTY, "load.maxInFlight", "http.pool.size"}) {
+            if (System.getProperty(property) != null) {
+                command.add("-D" + property + "=" + System.getProperty(property));
+            }
+        }
+        command.add(LoadWorker.class.getName());
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    // exec:java запускает код в своём загрузчике классов, а java.class.path там - classpath самого Maven
+    private static String classpath() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    entries.add(Paths.get(url.toURI()).toString());
+                } catch (URISyntaxException | IllegalArgumentException e) {
+                    entries.add(url.getPath());
+                }
+            }
+            if (!entries.isEmpty()) {
+                return String.join(File.pathSeparator, entries);
+            }
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    static class WorkerResult {
+        final Map<String, Histogram> histograms = new TreeMap<>();
+        final Map<String, Long> errors = new TreeMap<>();
+        long sent;
+        double seconds;
+
+        static void write(DataOutputStream out, LatencyStats stats, long sent, double seconds) throws IOException {
+            out.writeUTF(RESULT);
+            Map<String, Histogram> histograms = stats.total();
+            out.writeInt(histograms.size());
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(LatencyStats.encode(entry.getValue()));
+            }
+            Map<String, Long> errors = stats.errorCounts();
+            out.writeInt(errors.size());
+            for (Map.Entry<String, Long> entry : errors.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.writeLong(sent);
+            out.writeDouble(seconds);
+            out.flush();
+        }
+
+        static WorkerResult read(DataInputStream in) throws IOException {
+            expect(in, RESULT);
+            WorkerResult result = new WorkerResult();
+            int histograms = in.readInt();
+            for (int i = 0; i < histograms; i++) {
+                String endpoint = in.readUTF();
+                result.histograms.put(endpoint, LatencyStats.decode(in.readUTF()));
+            }
+            int errors = in.readInt();
+            for (int i = 0; i < errors; i++) {
+                String endpoint = in.readUTF();
+                result.errors.put(endpoint, in.readLong());
+            }
+            result.sent = in.readLong();
+            result.seconds = in.readDouble();
+            return result;
+        }
+    }
+}
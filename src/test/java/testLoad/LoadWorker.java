@@ -0,0 +1,67 @@
+package testLoad;
+
+import testSupport.ConnectionPool;
+import testSupport.Diagnostics;
+import testSupport.PerfHistory;
+import testSupport.PhaseTimings;
+import testSupport.Target;
+import testSupport.UniqueIds;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+
+// Воркер распределённой нагрузки: получает от LoadCoordinator адрес API, долю частоты и смесь,
+// готовит OpenLoopRunner, по общей команде старта гоняет нагрузку и отправляет гистограммы и ошибки обратно.
+// Адрес координатора: -Dload.coordinator=host:port (по умолчанию 127.0.0.1:7711).
+public class LoadWorker {
+
+    public static void main(String[] args) throws Exception {
+        String coordinator = System.getProperty("load.coordinator", "127.0.0.1:7711");
+        int colon = coordinator.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Адрес координатора должен быть host:port: " + coordinator);
+        }
+        try (Socket socket = new Socket(coordinator.substring(0, colon), Integer.parseInt(coordinator.substring(colon + 1)))) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeUTF(ManagementFactory.getRuntimeMXBean().getName());
+            out.flush();
+            // Свойства ставятся до первого обращения к UniqueIds, Diagnostics и пулу: они читают их при загрузке
+            System.setProperty(Target.PROPERTY, in.readUTF());
+            System.setProperty(UniqueIds.RUN_ID_PROPERTY, in.readUTF());
+            System.setProperty(UniqueIds.FORK_PROPERTY, String.valueOf(in.readInt()));
+            double rate = in.readDouble();
+            String mix = in.readUTF();
+            int duration = in.readInt();
+            int maxInFlight = Integer.getInteger("load.maxInFlight", 10000);
+            if (System.getProperty(PerfHistory.WORKLOAD_PROPERTY) == null) {
+                System.setProperty(PerfHistory.WORKLOAD_PROPERTY, PerfHistory.LOAD);
+            }
+            // Фазы пишутся построчно под общей блокировкой: на нагрузке только по явному -Dphases=true
+            if (System.getProperty(PhaseTimings.ENABLED_PROPERTY) == null) {
+                System.setProperty(PhaseTimings.ENABLED_PROPERTY, "false");
+            }
+            if (System.getProperty(Diagnostics.SAMPLE_PROPERTY) == null) {
+                System.setProperty(Diagnostics.SAMPLE_PROPERTY, "0.01");
+            }
+            if (System.getProperty(ConnectionPool.POOL_SIZE_PROPERTY) == null) {
+                System.setProperty(ConnectionPool.POOL_SIZE_PROPERTY, String.valueOf(Math.min(maxInFlight, 1000)));
+            }
+            // Промежуточные отчёты не печатаются: итог сводит координатор
+            OpenLoopRunner runner = new OpenLoopRunner(rate, mix, duration, 0, maxInFlight);
+            runner.prepare();
+            out.writeUTF(LoadCoordinator.READY);
+            out.flush();
+            LoadCoordinator.expect(in, LoadCoordinator.GO);
+            long started = System.nanoTime();
+            String report = runner.run();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            if (runner.stats().totalErrors() > 0) {
+                System.out.println(UniqueIds.fork() + ": " + report + "Последние сообщения диагностики (выборка):\n" + Diagnostics.drainShared());
+            }
+            LoadCoordinator.WorkerResult.write(out, runner.stats(), runner.sent(), seconds);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package testLoad;
+
+import testLogin.CourierLoginTest.CourierAssistant;
+import testOrder.ClientOrder;
+import testOrder.CreateOrder;
+import testSupport.ApiResponse;
+import testSupport.ConnectionPool;
+import testSupport.Diagnostics;
+import testSupport.PerfHistory;
+import testSupport.PhaseTimings;
+import testSupport.Resilience;
+import testSupport.ScooterStub;
+import testSupport.Target;
+import testSupport.UniqueIds;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Открытая модель нагрузки: запросы отправляются с заданной частотой независимо от скорости ответов.
+// Задержка считается от запланированного момента отправки, поэтому замедление сервера не прячется (coordinated omission).
+// Запуск: mvn -Pload test-compile exec:java -Dload.main=testLoad.OpenLoopRunner -Dload.rate=200
+//         -Dload.mix=orders.list=70,order.create=20,courier.login=10 -Dload.duration=3600 -Dload.reportEvery=10
+// load.reportEvery=0 отключает промежуточные отчёты.
+// Запрос без свободного слота (load.maxInFlight) не отправляется: он идёт в строку "(не отправлено)" с отставанием от плана
+// и отдельной долей в итоге - перцентили эндпоинтов такие запросы не видят.
+// Созданные заказы завершаются после замера (track + finish), чтобы они не копились на цели за время прогона.
+public class OpenLoopRunner {
+    public static final String DEFAULT_MIX = "orders.list=70,order.create=20,courier.login=10";
+    static final String DROPPED = "(не отправлено)";
+
+    private final double rate;
+    private final Map<Operation, Integer> mix;
+    private final long durationNanos;
+    private final long reportEveryNanos;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final LatencyStats stats = new LatencyStats();
+    private final AtomicLong sent = new AtomicLong();
+    private final BlockingQueue<ApiResponse> created;
+    private final CourierAssistant courierAssistant = new CourierAssistant();
+    private String courierLogin;
+    private String courierPassword;
+
+    public OpenLoopRunner(double rate, String mix, int durationSeconds, int reportEverySeconds, int maxInFlight) {
+        this.rate = rate;
+        this.mix = parseMix(mix);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.reportEveryNanos = TimeUnit.SECONDS.toNanos(reportEverySeconds);
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.created = new ArrayBlockingQueue<>(maxInFlight);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxInFlight = Integer.getInteger("load.maxInFlight", 10000);
+        if (System.getProperty(PerfHistory.WORKLOAD_PROPERTY) == null) {
+            System.setProperty(PerfHistory.WORKLOAD_PROPERTY, PerfHistory.LOAD);
+        }
+        // Фазы пишутся построчно под общей блокировкой: на нагрузке только по явному -Dphases=true
+        if (System.getProperty(PhaseTimings.ENABLED_PROPERTY) == null) {
+            System.setProperty(PhaseTimings.ENABLED_PROPERTY, "false");
+        }
+        if (System.getProperty(Diagnostics.SAMPLE_PROPERTY) == null) {
+            System.setProperty(Diagnostics.SAMPLE_PROPERTY, "0.01");
+        }
+        if (System.getProperty(ConnectionPool.POOL_SIZE_PROPERTY) == null) {
+            System.setProperty(ConnectionPool.POOL_SIZE_PROPERTY, String.valueOf(Math.min(maxInFlight, 1000)));
+        }
+        OpenLoopRunner runner = new OpenLoopRunner(
+                Double.parseDouble(System.getProperty("load.rate", "100")),
+                System.getProperty("load.mix", DEFAULT_MIX),
+                Integer.getInteger("load.duration", 60),
+                Integer.getInteger("load.reportEvery", 10),
+                maxInFlight);
+        try {
+            System.out.println(runner.run());
+            // Выборка отладочных сообщений нужна, только если были ошибки
+            if (runner.stats().totalErrors() > 0) {
+                System.out.println("Последние сообщения диагностики (выборка):\n" + Diagnostics.drainShared());
+            }
+        } finally {
+            // Потоки заглушки не daemon: без остановки exec:java не завершится
+            ScooterStub.stopShared();
+        }
+    }
+
+    public LatencyStats stats() {
+        return stats;
+    }
+
+    public long sent() {
+        return sent.get();
+    }
+
+    // Курьер для смеси с логином; вызывается из run() или заранее, чтобы старт нагрузки не ждал подготовки
+    public void prepare() {
+        if (courierLogin == null && mix.containsKey(Operation.COURIER_LOGIN)) {
+            prepareCourier();
+        }
+    }
+
+    public String run() throws InterruptedException {
+        System.out.println("Открытая нагрузка на " + Target.baseUri() + ": " + rate + " запросов/с, смесь " + mix);
+        prepare();
+        int totalWeight = 0;
+        for (int weight : mix.values()) {
+            totalWeight += weight;
+        }
+        ExecutorService executor = LoadThreads.newExecutor("open-loop");
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        long nextReport = start + reportEveryNanos;
+        long lastReport = start;
+        for (long n = 0; ; n++) {
+            long intended = start + n * periodNanos;
+            if (intended >= deadline) {
+                break;
+            }
+            long now = System.nanoTime();
+            if (reportEveryNanos > 0 && now >= nextReport) {
+                System.out.println(stats.report("Интервал", stats.interval(), (now - lastReport) / 1e9));
+                lastReport = now;
+                nextReport += reportEveryNanos;
+            }
+            if (intended > now) {
+                LockSupport.parkNanos(intended - now);
+            }
+            Operation operation = pick(totalWeight);
+            if (!inFlight.tryAcquire()) {
+                stats.record(DROPPED, System.nanoTime() - intended);
+                stats.error(DROPPED);
+                continue;
+            }
+            sent.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    if (execute(operation)) {
+                        stats.record(operation.endpoint, System.nanoTime() - intended);
+                    } else {
+                        stats.error(operation.endpoint);
+                    }
+                } catch (Exception e) {
+                    stats.error(operation.endpoint);
+                    Diagnostics.warn(() -> operation.endpoint + ": " + e.getMessage());
+                }
+                try {
+                    // Завершение не входит в задержку создания, но держит слот, чтобы очередь не росла
+                    finishCreated();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        executor.shutdown();
+        int unfinished = 0;
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            // Зависшие запросы прерываются, иначе отчёт собирался бы, пока они ещё пишут в статистику
+            unfinished = maxInFlight - inFlight.availablePermits();
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        while (!created.isEmpty()) {
+            finishCreated();
+        }
+        if (courierLogin != null) {
+            try {
+                int courierId = courierAssistant.getCourierId(courierLogin, courierPassword);
+                if (courierId != -1) {
+                    courierAssistant.deleteCourier(courierId);
+                }
+            } catch (Exception e) {
+                System.err.println("Не удалось удалить курьера нагрузки " + courierLogin + ": " + e.getMessage());
+            }
+        }
+        long dropped = stats.errors(DROPPED);
+        return stats.report("Итого отправлено: " + sent.get()
+                + ", не отправлено: " + dropped + String.format(" (%.1f%%)", 100.0 * dropped / Math.max(1, sent.get() + dropped))
+                + ", не завершено за минуту после конца: " + unfinished + ", " + ConnectionPool.shared() + ", " + Resilience.summary(), stats.total(), seconds);
+    }
+
+    private void prepareCourier() {
+        courierLogin = UniqueIds.login();
+        courierPassword = "1234";
+        courierAssistant.checkStatusCode(courierAssistant.createCourier(
+                courierAssistant.createRequestBody(courierLogin, courierPassword, UniqueIds.firstName())), 201);
+    }
+
+    private Operation pick(int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Пустая смесь запросов");
+    }
+
+    private boolean execute(Operation operation) {
+        switch (operation) {
+            case ORDERS_LIST:
+                ClientOrder.getAllOrders();
+                return true;
+            case ORDER_CREATE:
+                // Очередь ограничена числом запросов в полёте: каждая задача забирает из неё не больше одного заказа
+                created.offer(ClientOrder.createNewOrder(new CreateOrder("Нагрузка", "Тестовая", "Москва, 1", "4",
+                        UniqueIds.phone(), "2024-11-01", "", new String[]{"GRAY"}, 1)));
+                return true;
+            case COURIER_LOGIN:
+                // Тело дочитывается: непрочитанный ответ держит соединение пула
+                ApiResponse login = courierAssistant.login(courierLogin, courierPassword);
+                return login.statusCode() == 200 && login.courierId() != null;
+            default:
+                throw new IllegalStateException("Неизвестная операция: " + operation);
+        }
+    }
+
+    private void finishCreated() {
+        ApiResponse response = created.poll();
+        if (response == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        String orderId;
+        try {
+            orderId = ClientOrder.getOrderId(response);
+            stats.record(OrderLoadRunner.TRACK, System.nanoTime() - started);
+        } catch (Exception e) {
+            stats.error(OrderLoadRunner.TRACK);
+            Diagnostics.warn(() -> OrderLoadRunner.TRACK + ": " + e.getMessage());
+            return;
+        }
+        started = System.nanoTime();
+        try {
+            ClientOrder.deleteOrder(orderId);
+            stats.record(OrderLoadRunner.FINISH, System.nanoTime() - started);
+        } catch (Exception e) {
+            stats.error(OrderLoadRunner.FINISH);
+            Diagnostics.warn(() -> OrderLoadRunner.FINISH + ": " + e.getMessage());
+        }
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Неверный формат смеси запросов: " + mix);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.byName(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Пустая смесь запросов: " + mix);
+        }
+        return weights;
+    }
+
+    enum Operation {
+        ORDERS_LIST("orders.list", "GET /api/v1/orders"),
+        ORDER_CREATE("order.create", OrderLoadRunner.CREATE),
+        COURIER_LOGIN("courier.login", "POST /api/v1/courier/login");
+
+        final String name;
+        final String endpoint;
+
+        Operation(String name, String endpoint) {
+            this.name = name;
+            this.endpoint = endpoint;
+        }
+
+        static Operation byName(String name) {
+            for (Operation operation : values()) {
+                if (operation.name.equals(name)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Неизвестная операция в смеси: " + name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
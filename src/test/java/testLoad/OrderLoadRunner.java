@@ -0,0 +1,143 @@
+package testLoad;
+
+import testOrder.ClientOrder;
+import testOrder.CreateOrder;
+import testSupport.ApiResponse;
+import testSupport.ConnectionPool;
+import testSupport.Diagnostics;
+import testSupport.PerfHistory;
+import testSupport.PhaseTimings;
+import testSupport.Resilience;
+import testSupport.ScooterStub;
+import testSupport.Target;
+import testSupport.UniqueIds;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Закрытая модель нагрузки: каждый поток в цикле гоняет createNewOrder -> getOrderId -> deleteOrder.
+// Запуск: mvn -Pload test-compile exec:java -Dload.concurrency=2000 -Dload.duration=60 -Dload.rampUp=10
+public class OrderLoadRunner {
+    static final String CREATE = "POST /api/v1/orders";
+    static final String TRACK = "GET /api/v1/orders/track";
+    static final String FINISH = "PUT /api/v1/orders/finish";
+
+    private final int concurrency;
+    private final long durationNanos;
+    private final long rampUpNanos;
+    private final LatencyStats stats = new LatencyStats();
+    private final AtomicLong chains = new AtomicLong();
+
+    public OrderLoadRunner(int concurrency, int durationSeconds, int rampUpSeconds) {
+        this.concurrency = concurrency;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.rampUpNanos = TimeUnit.SECONDS.toNanos(rampUpSeconds);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int concurrency = Integer.getInteger("load.concurrency", 1000);
+        if (System.getProperty(PerfHistory.WORKLOAD_PROPERTY) == null) {
+            System.setProperty(PerfHistory.WORKLOAD_PROPERTY, PerfHistory.LOAD);
+        }
+        // Фазы пишутся построчно под общей блокировкой: на нагрузке только по явному -Dphases=true
+        if (System.getProperty(PhaseTimings.ENABLED_PROPERTY) == null) {
+            System.setProperty(PhaseTimings.ENABLED_PROPERTY, "false");
+        }
+        if (System.getProperty(Diagnostics.SAMPLE_PROPERTY) == null) {
+            System.setProperty(Diagnostics.SAMPLE_PROPERTY, "0.01");
+        }
+        if (System.getProperty(ConnectionPool.POOL_SIZE_PROPERTY) == null) {
+            System.setProperty(ConnectionPool.POOL_SIZE_PROPERTY, String.valueOf(concurrency));
+        }
+        OrderLoadRunner runner = new OrderLoadRunner(concurrency,
+                Integer.getInteger("load.duration", 30),
+                Integer.getInteger("load.rampUp", 5));
+        try {
+            System.out.println(runner.run());
+            // Выборка отладочных сообщений нужна, только если были ошибки
+            if (runner.stats().totalErrors() > 0) {
+                System.out.println("Последние сообщения диагностики (выборка):\n" + Diagnostics.drainShared());
+            }
+        } finally {
+            // Потоки заглушки не daemon: без остановки exec:java не завершится
+            ScooterStub.stopShared();
+        }
+    }
+
+    public LatencyStats stats() {
+        return stats;
+    }
+
+    public String run() throws InterruptedException {
+        String target = Target.baseUri();
+        System.out.println("Нагрузка на " + target + ": потоков " + concurrency
+                + (LoadThreads.virtual() ? " (виртуальные)" : " (платформенные)"));
+        long start = System.nanoTime();
+        long deadline = start + rampUpNanos + durationNanos;
+        ExecutorService executor = LoadThreads.newExecutor("order-load");
+        for (int i = 0; i < concurrency; i++) {
+            long startAt = start + rampUpNanos * i / concurrency;
+            executor.execute(() -> loop(startAt, deadline));
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationNanos + rampUpNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return stats.report("Цепочек заказа: " + chains.get() + ", " + ConnectionPool.shared() + ", " + Resilience.summary(), stats.total(), seconds);
+    }
+
+    private void loop(long startAt, long deadline) {
+        sleepUntil(startAt);
+        while (System.nanoTime() < deadline) {
+            if (chain()) {
+                chains.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean chain() {
+        CreateOrder order = new CreateOrder("Нагрузка", "Тестовая", "Москва, 1", "4",
+                UniqueIds.phone(), "2024-11-01", "", new String[]{"BLACK"}, 1);
+        long started = System.nanoTime();
+        ApiResponse created;
+        try {
+            created = ClientOrder.createNewOrder(order);
+            stats.record(CREATE, System.nanoTime() - started);
+        } catch (Exception e) {
+            stats.error(CREATE);
+            Diagnostics.warn(() -> CREATE + ": " + e.getMessage());
+            return false;
+        }
+        started = System.nanoTime();
+        String orderId;
+        try {
+            orderId = ClientOrder.getOrderId(created);
+            stats.record(TRACK, System.nanoTime() - started);
+        } catch (Exception e) {
+            stats.error(TRACK);
+            Diagnostics.warn(() -> TRACK + ": " + e.getMessage());
+            return false;
+        }
+        started = System.nanoTime();
+        try {
+            ClientOrder.deleteOrder(orderId);
+            stats.record(FINISH, System.nanoTime() - started);
+        } catch (Exception e) {
+            stats.error(FINISH);
+            Diagnostics.warn(() -> FINISH + ": " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long delay = nanoTime - System.nanoTime();
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -9,10 +9,21 @@ import io.qameta.allure.Feature;
 import io.qameta.allure.Step;
 import io.qameta.allure.junit4.DisplayName;
 import io.restassured.RestAssured;
-import io.restassured.response.Response;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import testOrder.Specific;
+import testSupport.ApiResponse;
+import testSupport.CourierPool;
+import testSupport.Diagnostics;
+import testSupport.Fixtures;
+import testSupport.IdCache;
+import testSupport.LatencyFilter;
+import testSupport.LatencyBudget;
+import testSupport.LatencyBudgetRule;
+import testSupport.UniqueIds;
+import testSupport.CourierPool.PooledCourier;
 
 import java.nio.charset.StandardCharsets;
 
@@ -23,18 +34,17 @@ import static org.hamcrest.Matchers.*;
 @Feature("Логин курьера")
 public class CourierLoginTest {
     private Gson gson;
-    private int courierId = -1;
+    private PooledCourier courier;
     private final CourierAssistant courierAssistant = new CourierAssistant();
+    @Rule
+    public LatencyBudgetRule latencyBudget = new LatencyBudgetRule();
     @After
     public void tearDown() {
-        if (courierId != -1) {
-            courierAssistant.deleteCourier(courierId);
-        }
+        CourierPool.shared().release(courier);
     }
     @Before
     @Step("Настройка тестовой среды")
     public void setUp() {
-        RestAssured.baseURI = "https://qa-scooter.praktikum-services.ru/";
         gson = new GsonBuilder().setPrettyPrinting().create();
     }
     public static class CourierAssistant {
@@ -47,145 +57,154 @@ public class CourierLoginTest {
             JsonElement jsonElement = JsonParser.parseString(responseBody);
             return gson.toJson(jsonElement);
         }
-        public void checkStatusCode(Response response, int expectedStatusCode) {
-            assertThat(response.getStatusCode(), is(expectedStatusCode));
+        public void checkStatusCode(ApiResponse response, int expectedStatusCode) {
+            assertThat(response.statusCode(), is(expectedStatusCode));
         }
-        public void checkErrorMessage(Response response, String expectedMessage) {
-            assertThat(response.jsonPath().getString("message"), is(expectedMessage));
+        public void checkErrorMessage(ApiResponse response, String expectedMessage) {
+            assertThat(response.message(), is(expectedMessage));
         }
         public String createRequestBody(String login, String password, String firstName) {
             return "{ \"login\": \"" + login + "\", \"password\": \"" + password + "\", \"firstName\": \"" + firstName + "\" }";
         }
         @Step("Создание курьера")
-        public Response createCourier(String body) {
-            return RestAssured.given()
+        public ApiResponse createCourier(String body) {
+            return sendCreateCourier(body);
+        }
+        // Без @Step: общий запрос для createCourier и AsyncClient
+        public ApiResponse sendCreateCourier(String body) {
+            return ApiResponse.of(RestAssured.given()
+                    .spec(Specific.requestSpec())
                     .header("Content-Type", "application/json")
                     .body(body)
                     .when()
-                    .post("/api/v1/courier");
+                    .post("/api/v1/courier"));
         }
-        public int getCourierId(String login, String password) {
-            Response response = RestAssured.given()
+        // Всегда настоящий запрос логина, без кэша
+        public ApiResponse login(String login, String password) {
+            return ApiResponse.of(RestAssured.given()
+                    .spec(Specific.requestSpec())
                     .header("Content-Type", "application/json")
                     .body("{ \"login\": \"" + login + "\", \"password\": \"" + password + "\" }")
                     .when()
-                    .post("/api/v1/courier/login");
-            if (response.getStatusCode() == 200) {
-                return response.jsonPath().getInt("id");
+                    .post("/api/v1/courier/login"));
+        }
+        public int getCourierId(String login, String password) {
+            Integer cached = IdCache.courierId(login, password);
+            if (cached != null) {
+                return cached;
+            }
+            ApiResponse response = login(login, password);
+            if (response.statusCode() == 200) {
+                return response.courierId();
             } else {
                 return -1;
             }
         }
         public void deleteCourier(int courierId) {
             RestAssured.given()
+                    .spec(Specific.requestSpec())
                     .header("Content-Type", "application/json")
                     .when()
                     .delete("/api/v1/courier/" + courierId)
                     .then()
                     .statusCode(200);
-            System.out.println("Курьер с ID " + courierId + " был удален.");
+            Diagnostics.info(() -> "Курьер с ID " + courierId + " был удален.");
         }
     }
     @Test
-    @DisplayName("Courier can be created and login")
+    @DisplayName("Pooled courier can login")
     @Step("Курьер может авторизоваться")
-    public void testCourierCanBeCreatedAndLogin() {
-        String login = "galy";
-        String password = "1234";
-        String body = courierAssistant.createRequestBody(login, password, "ytut");
-        Response createResponse = courierAssistant.createCourier(body);
-        courierAssistant.checkStatusCode(createResponse, 201);
-        System.out.println("Курьер успешно создан. Код ответа: " + createResponse.getStatusCode());
-        String loginBody = "{ \"login\": \"" + login + "\", \"password\": \"" + password + "\" }";
-        Response loginResponse = RestAssured.given()
+    @LatencyBudget(calls = @LatencyBudget.Call(endpoint = "POST /api/v1/courier/login", millis = 300))
+    public void testPooledCourierCanLogin() {
+        courier = CourierPool.shared().lease();
+        String loginBody = "{ \"login\": \"" + courier.getLogin() + "\", \"password\": \"" + courier.getPassword() + "\" }";
+        ApiResponse loginResponse = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(loginBody)
                 .when()
-                .post("/api/v1/courier/login");
+                .post("/api/v1/courier/login"));
         courierAssistant.checkStatusCode(loginResponse, 200);
-        assertThat(loginResponse.jsonPath().get("id"), is(notNullValue()));
-        courierId = courierAssistant.getCourierId(login, password);
-        assertThat(courierId, is(not(-1)));
+        assertThat(loginResponse.courierId(), is(notNullValue()));
+        assertThat(loginResponse.courierId(), is(courier.getId()));
     }
     @Test
     @DisplayName("Login with wrong credentials should fail")
     @Step("Система вернёт ошибку, если неправильно указать логин или пароль")
     public void testWithWrongLoginOrPasswordCourier() {
-        String login = "qal";
-        String password = "123";
-        String body = courierAssistant.createRequestBody(login, password, "ytut");
-        Response createResponse = courierAssistant.createCourier(body);
-        courierAssistant.checkStatusCode(createResponse, 201);
-        System.out.println("Курьер создан. Код ответа: " + createResponse.getStatusCode());
-        //  Неверный логин и пароль
-        String bodyWrongCredentials = "{ \"login\": \"User \", \"password\": \"4321\" }";
-        Response responseWrongCredentials = RestAssured.given()
+        courier = CourierPool.shared().lease();
+        //  Верный логин и неверный пароль
+        String bodyWrongCredentials = "{ \"login\": \"" + courier.getLogin() + "\", \"password\": \"4321\" }";
+        ApiResponse responseWrongCredentials = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(bodyWrongCredentials)
                 .when()
-                .post("/api/v1/courier/login");
+                .post("/api/v1/courier/login"));
         courierAssistant.checkStatusCode(responseWrongCredentials, 404);
         courierAssistant.checkErrorMessage(responseWrongCredentials, "Учетная запись не найдена");
-        courierId = courierAssistant.getCourierId(login, password);
-        assertThat(courierId, is(not(-1)));
     }
     @Test
     @DisplayName("Missing required fields returns error")
     @Step("Если какого-то поля нет, запрос возвращает ошибку")
     public void testMissingRequiredFieldsCourier() {
-        String login = "qly";
-        String password = "1234";
-        String body = courierAssistant.createRequestBody(login, password, "ytut");
-        Response createResponse = courierAssistant.createCourier(body);
-        courierAssistant.checkStatusCode(createResponse, 201);
-        System.out.println("Курьер успешно создан. Код ответа: " + createResponse.getStatusCode());
-        try {
-            courierId = courierAssistant.getCourierId(login, password);
-            assertThat(courierId, is(not(-1)));
-            //  Отсутствует поле "login"
-            String bodyWithoutLogin = "{ \"password\": \"1234\" }";
-            Response responseWithoutLogin = RestAssured.given()
-                    .header("Content-Type", "application/json")
-                    .body(bodyWithoutLogin)
-                    .when()
-                    .post("/api/v1/courier/login");
-            String expectedMessage = "Недостаточно данных для входа";
-            courierAssistant.checkStatusCode(responseWithoutLogin, 400);
-            courierAssistant.checkErrorMessage(responseWithoutLogin, expectedMessage);
-            System.out.println("Тест на отсутствие логина. Код ответа: " + responseWithoutLogin.getStatusCode());
-            //  Отсутствует поле "password"
-            String bodyWithoutPassword = "{ \"login\": \"qaly\" }";
-            Response responseWithoutPassword = RestAssured.given()
-                    .header("Content-Type", "application/json")
-                    .body(bodyWithoutPassword)
-                    .when()
-                    .post("/api/v1/courier/login");
-            courierAssistant.checkStatusCode(responseWithoutPassword, 400);
-            courierAssistant.checkErrorMessage(responseWithoutPassword, expectedMessage);
+        courier = CourierPool.shared().lease();
+        //  Отсутствует поле "login"
+        String bodyWithoutLogin = "{ \"password\": \"" + courier.getPassword() + "\" }";
+        ApiResponse responseWithoutLogin = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
+                .header("Content-Type", "application/json")
+                .body(bodyWithoutLogin)
+                .when()
+                .post("/api/v1/courier/login"));
+        String expectedMessage = "Недостаточно данных для входа";
+        courierAssistant.checkStatusCode(responseWithoutLogin, 400);
+        courierAssistant.checkErrorMessage(responseWithoutLogin, expectedMessage);
+        Diagnostics.info(() -> "Тест на отсутствие логина. Код ответа: " + responseWithoutLogin.statusCode());
+        //  Отсутствует поле "password"
+        String bodyWithoutPassword = "{ \"login\": \"" + courier.getLogin() + "\" }";
+        ApiResponse responseWithoutPassword = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
+                .header("Content-Type", "application/json")
+                .body(bodyWithoutPassword)
+                .when()
+                .post("/api/v1/courier/login"));
+        courierAssistant.checkStatusCode(responseWithoutPassword, 400);
+        courierAssistant.checkErrorMessage(responseWithoutPassword, expectedMessage);
 
-            System.out.println("Тест на отсутствие пароля. Код ответа: " + responseWithoutPassword.getStatusCode());
-        } finally {
-            if (courierId != -1) {
-                courierAssistant.deleteCourier(courierId);
-            }
-        }
+        Diagnostics.info(() -> "Тест на отсутствие пароля. Код ответа: " + responseWithoutPassword.statusCode());
+    }
+    @Test
+    @DisplayName("Courier id is resolved once and forgotten after delete")
+    @Step("Повторный поиск id курьера берётся из кэша, после удаления курьера - нет")
+    public void testCourierIdCachedUntilDelete() {
+        String login = UniqueIds.login();
+        courierAssistant.checkStatusCode(courierAssistant.createCourier(courierAssistant.createRequestBody(login, "1234", "cache")), 201);
+        int courierId = courierAssistant.getCourierId(login, "1234");
+        assertThat(courierId, is(not(-1)));
+        Fixtures.courier(CourierLoginTest.class, courierId);
+        assertThat(courierAssistant.getCourierId(login, "1234"), is(courierId));
+        assertThat(LatencyFilter.currentTest().get("POST /api/v1/courier/login").getTotalCount(), is(1L));
+        courierAssistant.deleteCourier(courierId);
+        Fixtures.courierReleased(courierId);
+        assertThat(courierAssistant.getCourierId(login, "1234"), is(-1));
     }
     @Test
     @DisplayName("Login non-existent user returns error")
     @Step("Если авторизоваться под несуществующим пользователем, запрос возвращает ошибку")
     public void testLoginNonExistentUser () {
         String bodyNonExistentUser  = "{ \"login\": \"Reva\", \"password\": \"2345\" }";
-        Response response = RestAssured.given()
+        ApiResponse response = ApiResponse.of(RestAssured.given()
+                .spec(Specific.requestSpec())
                 .header("Content-Type", "application/json")
                 .body(bodyNonExistentUser )
                 .when()
-                .post("/api/v1/courier/login");
+                .post("/api/v1/courier/login"));
         String expectedErrorMessage = new String("Учетная запись не найдена".getBytes(), StandardCharsets.UTF_8);
         courierAssistant.checkStatusCode(response, 404);
         courierAssistant.checkErrorMessage(response, "Учетная запись не найдена");
-        System.out.println("Not existent user login:");
-        System.out.println("Response Code: " + response.getStatusCode());
-        System.out.println("Response Body: " + response.asString());
+        Diagnostics.info(() -> "Not existent user login:\nResponse Code: " + response.statusCode()
+                + "\nResponse Body: " + response.body());
     }
 }
 
@@ -0,0 +1,126 @@
+package testOrder;
+
+import testLogin.CourierLoginTest.CourierAssistant;
+import testSupport.ApiResponse;
+import testSupport.ConnectionPool;
+import testSupport.Target;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Асинхронные версии запросов ClientOrder и CourierAssistant поверх общего пула соединений.
+// REST-assured блокирующий, поэтому запрос выполняет поток клиента, а вызывающий поток свободен
+// и собирает цепочки через thenCompose. Потоков ровно async.maxInFlight (по умолчанию размер пула
+// соединений): одновременно в полёте не больше запросов, остальные ждут в очереди.
+// Подмена адреса (Target.use) вызывающего потока переносится в потоки клиента на всю цепочку.
+public class AsyncClient {
+    public static final String MAX_IN_FLIGHT_PROPERTY = "async.maxInFlight";
+
+    private static AsyncClient shared;
+
+    private final ExecutorService executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final CourierAssistant courierAssistant = new CourierAssistant();
+
+    public AsyncClient(int maxInFlight) {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "async-client-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized AsyncClient shared() {
+        if (shared == null) {
+            shared = new AsyncClient(Integer.getInteger(MAX_IN_FLIGHT_PROPERTY, ConnectionPool.shared().size()));
+        }
+        return shared;
+    }
+
+    public CompletableFuture<ApiResponse> createNewOrder(CreateOrder createOrder) {
+        return submit(route(), () -> ClientOrder.sendCreateOrder(createOrder));
+    }
+
+    public CompletableFuture<String> getOrderId(ApiResponse created) {
+        return submit(route(), () -> ClientOrder.sendGetOrderId(created));
+    }
+
+    public CompletableFuture<ApiResponse> deleteOrder(String id) {
+        return submit(route(), () -> ClientOrder.sendFinishOrder(id));
+    }
+
+    public CompletableFuture<ApiResponse> createCourier(String body) {
+        return submit(route(), () -> courierAssistant.sendCreateCourier(body));
+    }
+
+    public CompletableFuture<Integer> getCourierId(String login, String password) {
+        return submit(route(), () -> courierAssistant.getCourierId(login, password));
+    }
+
+    // Создание -> поиск по трек-номеру -> завершение; результат - ответ на завершение заказа
+    public CompletableFuture<ApiResponse> orderChain(CreateOrder createOrder) {
+        // Следующие шаги стартуют в потоках клиента, поэтому адрес запоминается здесь
+        String route = route();
+        return submit(route, () -> ClientOrder.sendCreateOrder(createOrder))
+                .thenCompose(created -> submit(route, () -> ClientOrder.sendGetOrderId(created)))
+                .thenCompose(id -> submit(route, () -> ClientOrder.sendFinishOrder(id)));
+    }
+
+    public <T> CompletableFuture<List<T>> all(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    // Наибольшее число одновременных запросов с создания клиента
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // null - без подмены, запросы идут на настроенную цель
+    private static String route() {
+        return Target.isRerouted() ? Target.baseUri() : null;
+    }
+
+    private <T> CompletableFuture<T> submit(String route, Supplier<T> request) {
+        return CompletableFuture.supplyAsync(() -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (route == null) {
+                    return request.get();
+                }
+                try (Target.Routing ignored = Target.use(route)) {
+                    return request.get();
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }, executor);
+    }
+}
@@ -5,13 +5,21 @@ import io.qameta.allure.internal.shadowed.jackson.databind.ObjectMapper;
 import io.qameta.allure.internal.shadowed.jackson.databind.SerializationFeature;
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
-import org.junit.Assert;
+import testSupport.ApiResponse;
+import testSupport.Diagnostics;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 
 public class ClientOrder {
     private static final String CREATE_ORDERS = "/api/v1/orders";
@@ -19,67 +27,79 @@ public class ClientOrder {
     private static final String GET_ORDER_BY_TRACK = "/api/v1/orders/track";
 
     @Step("Создание заказа")
-    public static Response createNewOrder(CreateOrder createOrder) {
-        Response response = given()
+    public static ApiResponse createNewOrder(CreateOrder createOrder) {
+        return sendCreateOrder(createOrder);
+    }
+
+    @Step("Закрытие ордера по ID")
+    public static ApiResponse deleteOrder(String id) {
+        return sendFinishOrder(id);
+    }
+
+    @Step("Получение Id заказа по трек-номеру заказа")
+    public static String getOrderId(ApiResponse response) {
+        return sendGetOrderId(response);
+    }
+
+    // Те же запросы без шагов Allure: их вызывает AsyncClient из своих потоков, где нет текущего теста
+    static ApiResponse sendCreateOrder(CreateOrder createOrder) {
+        ApiResponse response = ApiResponse.of(given()
                 .spec(Specific.requestSpec())
                 .header("Content-type", "application/json")
                 .body(createOrder)
-                .post(CREATE_ORDERS);
-        if (response.getStatusCode() != 201) {
-            throw new RuntimeException("Ошибка при создании заказа. Код ответа: " + response.getStatusCode() + ", Тело ответа: " + response.asString());
+                .post(CREATE_ORDERS));
+        if (response.statusCode() != 201) {
+            throw new RuntimeException("Ошибка при создании заказа. Код ответа: " + response.statusCode() + ", Тело ответа: " + response.body());
         }
-        JsonPath jsonPath = new JsonPath(response.asString());
-        Integer trackNumber = jsonPath.get("track");
+        Integer trackNumber = response.track();
         if (trackNumber == null) {
-            throw new RuntimeException("Ошибка при создании заказа. Поле 'track' отсутствует в ответе. Тело ответа: " + response.asString());
+            throw new RuntimeException("Ошибка при создании заказа. Поле 'track' отсутствует в ответе. Тело ответа: " + response.body());
         }
-        System.out.println("Заказ создан. Код ответа: " + response.getStatusCode() + ", Тело ответа: " + response.asString() + ", номер заказа: " + trackNumber);
+        Diagnostics.info(() -> "Заказ создан. Код ответа: " + response.statusCode() + ", Тело ответа: " + response.body() + ", номер заказа: " + trackNumber);
         return response;
     }
 
-    @Step("Закрытие ордера по ID")
-    public static Response deleteOrder(String id) {
-        Response response = given()
+    static ApiResponse sendFinishOrder(String id) {
+        ApiResponse response = ApiResponse.of(given()
                 .spec(Specific.requestSpec())
                 .header("Content-type", "application/json")
-                .put(CANCEL_ORDER + "?id=" + id);
-        if (response.getStatusCode() != 200) {
-            throw new RuntimeException("Ошибка при удалении заказа. Код ответа: " + response.getStatusCode() + ", Тело ответа: " + response.asString());
+                .put(CANCEL_ORDER + "?id=" + id));
+        if (response.statusCode() != 200) {
+            throw new RuntimeException("Ошибка при удалении заказа. Код ответа: " + response.statusCode() + ", Тело ответа: " + response.body());
         }
-        System.out.println("Заказ удалён. Код ответа: " + response.getStatusCode() + ", Тело ответа: " + response.asString());
+        // Тело дочитывается сразу, иначе соединение не вернётся в пул, пока ответ не прочитает вызывающий
+        response.body();
+        Diagnostics.info(() -> "Заказ удалён. Код ответа: " + response.statusCode() + ", Тело ответа: " + response.body());
         return response;
     }
 
-    @Step("Получение Id заказа по трек-номеру заказа")
-    public static String getOrderId(Response response) {
-        String trackNumber = response.then().extract().body().asString();
-        JsonPath jsonPath = new JsonPath(trackNumber);
-        Response trackResponse = given()
+    static String sendGetOrderId(ApiResponse response) {
+        ApiResponse trackResponse = ApiResponse.of(given()
                 .spec(Specific.requestSpec())
                 .header("Content-type", "application/json")
-                .get(GET_ORDER_BY_TRACK + "?track=" + jsonPath.getString("track"));
-        if (trackResponse.getStatusCode() != 200) {
-            throw new RuntimeException("Ошибка при получении ID заказа. Код ответа: " + trackResponse.getStatusCode() + ", Тело ответа: " + trackResponse.asString());
+                .get(GET_ORDER_BY_TRACK + "?track=" + response.track()));
+        if (trackResponse.statusCode() != 200) {
+            throw new RuntimeException("Ошибка при получении ID заказа. Код ответа: " + trackResponse.statusCode() + ", Тело ответа: " + trackResponse.body());
         }
-        JsonPath orderJson = new JsonPath(trackResponse.asString());
-        String orderId = orderJson.getString("id");
+        String orderId = trackResponse.orderId();
         if (orderId == null) {
-            throw new RuntimeException("Ошибка: ID заказа отсутствует в ответе. Тело ответа: " + trackResponse.asString());
+            throw new RuntimeException("Ошибка: ID заказа отсутствует в ответе. Тело ответа: " + trackResponse.body());
         }
         return orderId;
     }
 
     @Step("Проверка успешного завершения заказа")
-    public static void comparingSuccessfulOrderCancel(Response response, int expectedResponseCode) {
-        if (response.getStatusCode() != expectedResponseCode) {
-            throw new AssertionError("Ожидаемый код ответа: " + expectedResponseCode + ", Фактический код ответа: " + response.getStatusCode());
+    public static void comparingSuccessfulOrderCancel(ApiResponse response, int expectedResponseCode) {
+        if (response.statusCode() != expectedResponseCode) {
+            throw new AssertionError("Ожидаемый код ответа: " + expectedResponseCode + ", Фактический код ответа: " + response.statusCode());
         }
-        response.then().assertThat().body("ok", equalTo(true)).and().statusCode(expectedResponseCode);
+        assertThat(response.ok(), equalTo(true));
     }
 
     @Step("Сравнение ожидаемого кода ответа с фактическим")
-    public static void comparingSuccessfulOrderSet(Response response, int responseCode) {
-        response.then().assertThat().body("track", not(0)).and().statusCode(responseCode);
+    public static void comparingSuccessfulOrderSet(ApiResponse response, int responseCode) {
+        assertThat(response.track(), allOf(notNullValue(), not(0)));
+        assertThat(response.statusCode(), equalTo(responseCode));
     }
 
     @Step("Получить список заказов")
@@ -96,18 +116,39 @@ public class ClientOrder {
         if (orders == null || orders.isEmpty()) {
             throw new RuntimeException("Ошибка: список заказов пуст.");
         }
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-            String ordersJson = objectMapper.writeValueAsString(orders);
-            System.out.println("Список заказов получен. Код ответа: " + response.getStatusCode() + ", Тело ответа: " + response.asString());
-            System.out.println(ordersJson);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при преобразовании списка заказов в JSON: " + e.getMessage());
+        // Форматированный список собирается, только если тест упал и диагностика выгружается
+        Diagnostics.debug(() -> {
+            try {
+                ObjectMapper objectMapper = new ObjectMapper();
+                objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+                return "Список заказов получен. Код ответа: " + response.getStatusCode() + "\n" + objectMapper.writeValueAsString(orders);
+            } catch (Exception e) {
+                throw new RuntimeException("Ошибка при преобразовании списка заказов в JSON: " + e.getMessage());
+            }
+        });
+        return response;
+    }
+
+    @Step("Получить страницу списка заказов")
+    public static Response getOrdersPage(int limit, int page) {
+        Response response = given()
+                .spec(Specific.requestSpec())
+                .header("Content-type", "application/json")
+                .queryParam("limit", limit)
+                .queryParam("page", page)
+                .get(CREATE_ORDERS);
+        if (response.getStatusCode() != 200) {
+            throw new RuntimeException("Ошибка при получении страницы заказов. Код ответа: " + response.getStatusCode() + ", Тело ответа: " + response.asString());
         }
         return response;
     }
 
+    // Заказы по страницам без загрузки всего списка в память
+    public static Stream<Order> streamOrders(int pageSize) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new OrderPages(pageSize),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
 }
 
 
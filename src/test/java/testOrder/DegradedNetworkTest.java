@@ -0,0 +1,201 @@
+package testOrder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import testLogin.CourierLoginTest.CourierAssistant;
+import testSupport.ApiResponse;
+import testSupport.CourierPool;
+import testSupport.CourierPool.PooledCourier;
+import testSupport.FaultProxy;
+import testSupport.Fixtures;
+import testSupport.PhaseTimings;
+import testSupport.Resilience;
+import testSupport.Target;
+import testSupport.UniqueIds;
+
+import static org.apache.http.HttpStatus.SC_CREATED;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+// Поведение клиента при деградации сети: запросы идут через FaultProxy перед настроенным адресом API
+public class DegradedNetworkTest {
+    private static FaultProxy proxy;
+
+    @BeforeClass
+    public static void startProxy() {
+        proxy = new FaultProxy(Target.baseUri()).start();
+    }
+
+    @AfterClass
+    public static void stopProxy() {
+        proxy.stop();
+        Fixtures.release(DegradedNetworkTest.class);
+    }
+
+    @After
+    public void clearRules() {
+        proxy.clear();
+    }
+
+    private static CreateOrder order() {
+        return new CreateOrder("Света", "Светова", "Светлая, 1", "5", UniqueIds.phone(), "01.11.2024",
+                "Звоните", new String[]{"BLACK"}, 5);
+    }
+
+    @Test
+    @DisplayName("Задержка сервера при создании заказа видна в длительности вызова")
+    public void orderCreationUnderLatency() {
+        proxy.rule("POST", "/api/v1/orders").latency(FaultProxy.uniform(200, 300));
+        try (Target.Routing ignored = Target.use(proxy.baseUri())) {
+            long started = System.nanoTime();
+            ApiResponse created = ClientOrder.createNewOrder(order());
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            ClientOrder.comparingSuccessfulOrderSet(created, SC_CREATED);
+            assertThat(elapsedMillis, greaterThanOrEqualTo(200L));
+            String orderId = ClientOrder.getOrderId(created);
+            Fixtures.order(DegradedNetworkTest.class, orderId);
+        }
+    }
+
+    @Test
+    @DisplayName("Логин курьера при медленном ответе")
+    public void courierLoginUnderLatency() {
+        PooledCourier courier = CourierPool.shared().lease();
+        proxy.rule("POST", "/api/v1/courier/login").latency(FaultProxy.fixed(250));
+        try (Target.Routing ignored = Target.use(proxy.baseUri())) {
+            long started = System.nanoTime();
+            ApiResponse login = new CourierAssistant().login(courier.getLogin(), courier.getPassword());
+            assertThat(login.courierId(), is(courier.getId()));
+            assertThat((System.nanoTime() - started) / 1_000_000, greaterThanOrEqualTo(250L));
+        } finally {
+            CourierPool.shared().release(courier);
+        }
+    }
+
+    @Test
+    @DisplayName("Задержка сервера на запросе по треку попадает в фазу ожидания ответа")
+    public void trackLatencyLandsInTimeToFirstByte() {
+        ApiResponse created = ClientOrder.createNewOrder(order());
+        proxy.rule("GET", "/api/v1/orders/track").latency(FaultProxy.fixed(200));
+        try (Target.Routing ignored = Target.use(proxy.baseUri())) {
+            String orderId = ClientOrder.getOrderId(created);
+            Fixtures.order(DegradedNetworkTest.class, orderId);
+        }
+        JsonObject phases = JsonParser.parseString(PhaseTimings.lastRecord()).getAsJsonObject();
+        assertThat(phases.get("endpoint").getAsString(), is("GET /api/v1/orders/track"));
+        assertThat(phases.get("correlationId").getAsString(), containsString(UniqueIds.runId()));
+        assertThat(phases.get("ttfbMs").getAsDouble(), greaterThanOrEqualTo(200.0));
+        assertThat(phases.get("downloadMs").getAsDouble(), lessThan(200.0));
+        assertThat(phases.get("totalMs").getAsDouble(), greaterThanOrEqualTo(phases.get("ttfbMs").getAsDouble()));
+    }
+
+    @Test
+    @DisplayName("Завершение заказа повторяется после серии ответов 503")
+    public void finishOrderRetriedAfterErrorBurst() {
+        ApiResponse created = ClientOrder.createNewOrder(order());
+        String orderId = ClientOrder.getOrderId(created);
+        Fixtures.order(DegradedNetworkTest.class, orderId);
+        FaultProxy.Rule rule = proxy.rule("PUT", "/api/v1/orders/finish").errorBurst(503, 2);
+        try (Target.Routing ignored = Target.use(proxy.baseUri())) {
+            ClientOrder.comparingSuccessfulOrderCancel(ClientOrder.deleteOrder(orderId), SC_OK);
+            Fixtures.orderReleased(orderId);
+        }
+        assertThat(rule.hits(), is(3));
+    }
+
+    @Test
+    @DisplayName("Создание заказа при ответе 503 не повторяется")
+    public void orderCreationNotRetriedOnError() {
+        FaultProxy.Rule rule = proxy.rule("POST", "/api/v1/orders").errorBurst(503, 1);
+        try (Target.Routing ignored = Target.use(proxy.baseUri())) {
+            try {
+                ClientOrder.createNewOrder(order());
+                throw new AssertionError("Ожидалась ошибка 503 при создании заказа");
+            } catch (RuntimeException e) {
+                assertThat(e.getMessage(), containsString("503"));
+            }
+        }
+        assertThat(rule.hits(), is(1));
+    }
+
+    @Test
+    @DisplayName("Недоступный адрес отключается предохранителем, остальные адреса работают")
+    public void circuitBreakerOpensForUnavailableTarget() {
+        FaultProxy down = new FaultProxy(Target.baseUri()).start();
+        down.rule(null, "/").errorRate(503, 1);
+        try (Target.Routing ignored = Target.use(down.baseUri())) {
+            int failures = 0;
+            while (!Resilience.isOpen(down.baseUri())) {
+                try {
+                    ClientOrder.createNewOrder(order());
+                } catch (RuntimeException e) {
+                    assertThat(e.getMessage(), containsString("503"));
+                }
+                assertThat("предохранитель не сработал", ++failures, lessThanOrEqualTo(10));
+            }
+            int sent = down.requests();
+            try {
+                ClientOrder.createNewOrder(order());
+                throw new AssertionError("Ожидался отказ без отправки запроса");
+            } catch (Resilience.CircuitOpenException e) {
+                assertThat(down.requests(), is(sent));
+            }
+        } finally {
+            down.stop();
+        }
+        assertThat(Resilience.isOpen(Target.baseUri()), is(false));
+        ApiResponse created = ClientOrder.createNewOrder(order());
+        ClientOrder.comparingSuccessfulOrderSet(created, SC_CREATED);
+        Fixtures.order(DegradedNetworkTest.class, ClientOrder.getOrderId(created));
+    }
+
+    @Test
+    @DisplayName("Обрыв соединения: GET повторяется Resilience, POST - нет")
+    public void connectionResetRetriesOnlyIdempotentRequests() {
+        ApiResponse created = ClientOrder.createNewOrder(order());
+        FaultProxy.Rule track = proxy.rule("GET", "/api/v1/orders/track").resetNext(1);
+        FaultProxy.Rule create = proxy.rule("POST", "/api/v1/orders").resetNext(1);
+        long retries = Resilience.retries();
+        try (Target.Routing ignored = Target.use(proxy.baseUri())) {
+            String orderId = ClientOrder.getOrderId(created);
+            assertThat(orderId, is(notNullValue()));
+            Fixtures.order(DegradedNetworkTest.class, orderId);
+            assertThat(track.hits(), is(2));
+            // Повторил именно Resilience, а не встроенный обработчик HttpClient
+            assertThat(Resilience.retries() - retries, is(1L));
+            try {
+                ClientOrder.createNewOrder(order());
+                throw new AssertionError("Ожидался обрыв соединения при создании заказа");
+            } catch (AssertionError e) {
+                throw e;
+            } catch (Exception e) {
+                assertThat(create.hits(), is(1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Список заказов при ограниченной скорости и зависании посреди тела")
+    public void orderListUnderBandwidthCapAndSlowBody() {
+        long bytesPerSecond = 20_000;
+        proxy.rule("GET", "/api/v1/orders").bandwidth(bytesPerSecond).slowBody(300);
+        try (Target.Routing ignored = Target.use(proxy.baseUri())) {
+            long started = System.nanoTime();
+            // Тело читается лениво, поэтому время меряется вместе с чтением
+            byte[] body = ClientOrder.getOrdersPage(30, 0).asByteArray();
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            long minimumMillis = 300 + body.length * 1000L / bytesPerSecond / 2;
+            assertThat(elapsedMillis, greaterThanOrEqualTo(minimumMillis));
+        }
+    }
+}
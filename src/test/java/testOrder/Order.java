@@ -0,0 +1,69 @@
+package testOrder;
+
+public class Order {
+    private Integer id;
+    private Integer courierId;
+    private Integer track;
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String metroStation;
+    private String phone;
+    private int rentTime;
+    private String deliveryDate;
+    private String comment;
+    private String[] color;
+    private int status;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getCourierId() {
+        return courierId;
+    }
+
+    public Integer getTrack() {
+        return track;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getMetroStation() {
+        return metroStation;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public int getRentTime() {
+        return rentTime;
+    }
+
+    public String getDeliveryDate() {
+        return deliveryDate;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public String[] getColor() {
+        return color;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,63 @@
+package testOrder;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+import testSupport.ApiResponse;
+import testSupport.FaultProxy;
+import testSupport.Target;
+import testSupport.UniqueIds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class OrderAsyncTest {
+    private static final int CHAINS = 20;
+
+    @Test
+    @DisplayName("Параллельные цепочки создание -> трек -> завершение заказа")
+    public void orderChainsRunConcurrently() throws Exception {
+        AsyncClient client = AsyncClient.shared();
+        List<ApiResponse> finished = runChains(client, CHAINS);
+        assertThat(finished, hasSize(CHAINS));
+        for (ApiResponse response : finished) {
+            ClientOrder.comparingSuccessfulOrderCancel(response, SC_OK);
+        }
+        assertThat(client.inFlight(), is(0));
+    }
+
+    @Test
+    @DisplayName("Цепочки идут внахлёст, но не больше async.maxInFlight запросов сразу")
+    public void orderChainsRespectMaxInFlight() throws Exception {
+        int maxInFlight = 2;
+        FaultProxy proxy = new FaultProxy(Target.baseUri()).start();
+        // Медленное создание заказа: запросы успевают наложиться
+        proxy.rule("POST", "/api/v1/orders").latency(FaultProxy.fixed(200));
+        AsyncClient client = new AsyncClient(maxInFlight);
+        try (Target.Routing ignored = Target.use(proxy.baseUri())) {
+            List<ApiResponse> finished = runChains(client, 6);
+            assertThat(finished, hasSize(6));
+        } finally {
+            client.close();
+            proxy.stop();
+        }
+        assertThat(client.peakInFlight(), lessThanOrEqualTo(maxInFlight));
+        assertThat(client.peakInFlight(), greaterThan(1));
+    }
+
+    private static List<ApiResponse> runChains(AsyncClient client, int count) throws Exception {
+        List<CompletableFuture<ApiResponse>> chains = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            chains.add(client.orderChain(new CreateOrder("Света", "Светова", "Светлая, 1", "5",
+                    UniqueIds.phone(), "01.11.2024", "Звоните", new String[]{"BLACK"}, 5)));
+        }
+        return client.all(chains).get(1, TimeUnit.MINUTES);
+    }
+}
@@ -1,10 +1,16 @@
 package testOrder;
 import io.qameta.allure.junit4.DisplayName;
-import io.restassured.response.Response;
 import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import testSupport.ApiResponse;
+import testSupport.Fixtures;
+import testSupport.LatencyBudget;
+import testSupport.LatencyBudgetRule;
+
 import static org.apache.http.HttpStatus.*;
 
 @RunWith(Parameterized.class)
@@ -20,9 +26,17 @@ public class OrderCreatTest {
     private final int rentTime;
     String orderId;
 
+    @Rule
+    public LatencyBudgetRule latencyBudget = new LatencyBudgetRule();
+
     @After
     public void tearDown() {
-        ClientOrder.deleteOrder(orderId);
+        Fixtures.order(OrderCreatTest.class, orderId);
+    }
+
+    @AfterClass
+    public static void releaseFixtures() {
+        Fixtures.release(OrderCreatTest.class);
     }
 
     public OrderCreatTest(String firstName, String lastName, String address, String metroStation,
@@ -50,13 +64,18 @@ public class OrderCreatTest {
 
     @Test
     @DisplayName("Создание заказа с использованием разных цветов")
+    @LatencyBudget(calls = {
+            @LatencyBudget.Call(endpoint = "POST /api/v1/orders", millis = 300),
+            @LatencyBudget.Call(endpoint = "GET /api/v1/orders/track", millis = 300),
+            @LatencyBudget.Call(endpoint = "PUT /api/v1/orders/finish", millis = 300)})
     public void createOrderParameterizedColorScooterTest() {
         CreateOrder createOrder = new CreateOrder(firstName, lastName, address,
                 metroStation, phone, deliveryDate, comment, color, rentTime);
-        Response createResponse = ClientOrder.createNewOrder(createOrder);
+        ApiResponse createResponse = ClientOrder.createNewOrder(createOrder);
         ClientOrder.comparingSuccessfulOrderSet(createResponse, SC_CREATED);
         orderId = ClientOrder.getOrderId(createResponse);
-        Response deleteResponse = ClientOrder.deleteOrder(orderId);
+        ApiResponse deleteResponse = ClientOrder.deleteOrder(orderId);
+        Fixtures.orderReleased(orderId);
         ClientOrder.comparingSuccessfulOrderCancel(deleteResponse, SC_OK);
     }
 
@@ -0,0 +1,200 @@
+package testOrder;
+
+import testSupport.UniqueIds;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Данные заказов по всему пространству параметров: цвета, срок аренды, станция метро, дата доставки,
+// имена (кириллица, латиница, диакритика, эмодзи, длинные) и комментарии.
+// pairwise - каждая пара значений любых двух параметров встречается хотя бы в одном заказе (несколько десятков заказов),
+// cartesian - все сочетания. Заказы создаются по одному при обходе потока, телефоны уникальные.
+public class OrderDataGenerator {
+    public static final String PAIRWISE = "pairwise";
+    public static final String CARTESIAN = "cartesian";
+
+    private static final String LONG_NAME = repeat("Я", 200);
+    private static final String LONG_COMMENT = repeat("Позвоните за час до доставки. ", 40);
+
+    private static final String[][] COLORS = {{"BLACK"}, {"GRAY"}, {"BLACK", "GRAY"}, {}};
+    private static final int[] RENT_TIMES = {1, 2, 5, 7};
+    private static final String[] METRO_STATIONS = {"1", "4", "5", "224"};
+    private static final String[] DELIVERY_DATES = {
+            LocalDate.now().plusDays(1).toString(), LocalDate.now().plusDays(30).toString(), "01.11.2024"};
+    private static final String[][] NAMES = {
+            {"Света", "Светова"}, {"John", "Smith"}, {"Zoë", "Núñez-Łukasiewicz"}, {"Анна-Мария 李", "🛴😀"}, {LONG_NAME, LONG_NAME}};
+    private static final String[] COMMENTS = {"", "Звоните", "Кавычки \" и обратный слэш \\", "Самокат 🛴 к подъезду", LONG_COMMENT};
+
+    private static final int[] SIZES = {COLORS.length, RENT_TIMES.length, METRO_STATIONS.length,
+            DELIVERY_DATES.length, NAMES.length, COMMENTS.length};
+
+    public static Stream<CreateOrder> orders(String mode) {
+        if (PAIRWISE.equals(mode)) {
+            return pairwise();
+        }
+        if (CARTESIAN.equals(mode)) {
+            return cartesian();
+        }
+        throw new IllegalArgumentException("Неизвестный режим генерации заказов: " + mode);
+    }
+
+    public static Stream<CreateOrder> cartesian() {
+        return stream(new Cartesian());
+    }
+
+    public static Stream<CreateOrder> pairwise() {
+        return stream(new Pairwise());
+    }
+
+    public static long cartesianSize() {
+        long size = 1;
+        for (int dimension : SIZES) {
+            size *= dimension;
+        }
+        return size;
+    }
+
+    public static String describe(CreateOrder order) {
+        return "цвет " + Arrays.toString(order.getColor()) + ", аренда " + order.getRentTime()
+                + ", метро " + order.getMetroStation() + ", дата " + order.getDeliveryDate()
+                + ", имя " + abbreviate(order.getFirstName()) + " " + abbreviate(order.getLastName())
+                + ", комментарий " + abbreviate(order.getComment());
+    }
+
+    private static Stream<CreateOrder> stream(Iterator<int[]> combinations) {
+        Iterator<CreateOrder> orders = new Iterator<CreateOrder>() {
+            @Override
+            public boolean hasNext() {
+                return combinations.hasNext();
+            }
+
+            @Override
+            public CreateOrder next() {
+                return toOrder(combinations.next());
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(orders, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static CreateOrder toOrder(int[] values) {
+        String[] name = NAMES[values[4]];
+        return new CreateOrder(name[0], name[1], "Светлая, 1", METRO_STATIONS[values[2]], UniqueIds.phone(),
+                DELIVERY_DATES[values[3]], COMMENTS[values[5]], COLORS[values[0]], RENT_TIMES[values[1]]);
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() > 20 ? text.substring(0, 20) + "...(" + text.length() + ")" : "\"" + text + "\"";
+    }
+
+    private static String repeat(String text, int times) {
+        return String.join("", Collections.nCopies(times, text));
+    }
+
+    // Счётчик со смешанным основанием: следующее сочетание вычисляется из текущего
+    private static class Cartesian implements Iterator<int[]> {
+        private final int[] current = new int[SIZES.length];
+        private boolean done;
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        public int[] next() {
+            if (done) {
+                throw new NoSuchElementException();
+            }
+            int[] result = current.clone();
+            int dimension = SIZES.length - 1;
+            while (dimension >= 0 && ++current[dimension] == SIZES[dimension]) {
+                current[dimension--] = 0;
+            }
+            done = dimension < 0;
+            return result;
+        }
+    }
+
+    // Жадный подбор: каждое следующее сочетание начинается с первой непокрытой пары
+    // и добирает остальные параметры значениями, закрывающими больше всего непокрытых пар
+    private static class Pairwise implements Iterator<int[]> {
+        private final Set<Long> uncovered = new HashSet<>();
+
+        Pairwise() {
+            for (int i = 0; i < SIZES.length; i++) {
+                for (int j = i + 1; j < SIZES.length; j++) {
+                    for (int a = 0; a < SIZES[i]; a++) {
+                        for (int b = 0; b < SIZES[j]; b++) {
+                            uncovered.add(pair(i, a, j, b));
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !uncovered.isEmpty();
+        }
+
+        @Override
+        public int[] next() {
+            if (uncovered.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            int[] values = new int[SIZES.length];
+            Arrays.fill(values, -1);
+            long seed = Collections.min(uncovered);
+            values[(int) (seed >> 48)] = (int) (seed >> 32) & 0xFFFF;
+            values[(int) (seed >> 16) & 0xFFFF] = (int) seed & 0xFFFF;
+            for (int dimension = 0; dimension < SIZES.length; dimension++) {
+                if (values[dimension] != -1) {
+                    continue;
+                }
+                int best = 0;
+                int bestGain = -1;
+                for (int value = 0; value < SIZES[dimension]; value++) {
+                    int gain = gain(values, dimension, value);
+                    if (gain > bestGain) {
+                        best = value;
+                        bestGain = gain;
+                    }
+                }
+                values[dimension] = best;
+            }
+            for (int i = 0; i < SIZES.length; i++) {
+                for (int j = i + 1; j < SIZES.length; j++) {
+                    uncovered.remove(pair(i, values[i], j, values[j]));
+                }
+            }
+            return values;
+        }
+
+        private int gain(int[] values, int dimension, int value) {
+            int gain = 0;
+            for (int other = 0; other < SIZES.length; other++) {
+                if (other == dimension || values[other] == -1) {
+                    continue;
+                }
+                long key = other < dimension ? pair(other, values[other], dimension, value) : pair(dimension, value, other, values[other]);
+                if (uncovered.contains(key)) {
+                    gain++;
+                }
+            }
+            return gain;
+        }
+
+        private static long pair(int i, int a, int j, int b) {
+            return ((long) i << 48) | ((long) a << 32) | ((long) j << 16) | b;
+        }
+    }
+}
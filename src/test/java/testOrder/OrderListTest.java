@@ -1,17 +1,45 @@
 package testOrder;
 import io.qameta.allure.junit4.DisplayName;
 import io.restassured.response.Response;
+import org.junit.Rule;
 import org.junit.Test;
+import testSupport.LatencyBudget;
+import testSupport.LatencyBudgetRule;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.apache.http.HttpStatus.SC_OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 
 public class OrderListTest {
 
+    @Rule
+    public LatencyBudgetRule latencyBudget = new LatencyBudgetRule();
+
     @Test
     @DisplayName("Получить список заказов")
+    @LatencyBudget(calls = @LatencyBudget.Call(endpoint = "GET /api/v1/orders", millis = 500))
     public void getAllOrders() {
         Response response = ClientOrder.getAllOrders();
         response.then().assertThat().body("orders", hasSize(greaterThan(0))).and().statusCode(SC_OK);
     }
+
+    @Test
+    @DisplayName("Обойти список заказов по страницам")
+    public void streamOrdersPageByPage() {
+        List<Integer> ids = ClientOrder.streamOrders(2)
+                .limit(5)
+                .map(Order::getId)
+                .collect(Collectors.toList());
+        assertThat(ids, hasSize(greaterThan(2)));
+        assertThat(ids, everyItem(notNullValue()));
+        assertThat(new HashSet<>(ids).size(), is(ids.size()));
+    }
 }
@@ -0,0 +1,92 @@
+package testOrder;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Ленивый обход /api/v1/orders по страницам: в памяти не больше одной страницы,
+// заказы читаются потоковым парсером по одному.
+public class OrderPages implements Iterator<Order> {
+    private static final Gson GSON = new Gson();
+
+    private final int limit;
+    private int page;
+    private int readOnPage;
+    private JsonReader reader;
+    private boolean lastPage;
+    private Order next;
+
+    public OrderPages(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть больше нуля: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Order next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Order order = next;
+        next = null;
+        return order;
+    }
+
+    private Order advance() {
+        try {
+            while (true) {
+                if (reader == null) {
+                    if (lastPage) {
+                        return null;
+                    }
+                    openPage();
+                    continue;
+                }
+                if (reader.hasNext()) {
+                    readOnPage++;
+                    return GSON.fromJson(reader, Order.class);
+                }
+                reader.close();
+                reader = null;
+                lastPage = readOnPage < limit;
+                page++;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при чтении списка заказов: " + e.getMessage(), e);
+        }
+    }
+
+    // Ставит reader на начало массива orders очередной страницы
+    private void openPage() throws IOException {
+        Response response = ClientOrder.getOrdersPage(limit, page);
+        readOnPage = 0;
+        JsonReader pageReader = new JsonReader(new InputStreamReader(response.asInputStream(), StandardCharsets.UTF_8));
+        pageReader.beginObject();
+        while (pageReader.hasNext()) {
+            if ("orders".equals(pageReader.nextName()) && pageReader.peek() == JsonToken.BEGIN_ARRAY) {
+                pageReader.beginArray();
+                reader = pageReader;
+                return;
+            }
+            pageReader.skipValue();
+        }
+        pageReader.close();
+        lastPage = true;
+    }
+}
@@ -0,0 +1,52 @@
+package testOrder;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+// Заказы из OrderDataGenerator через цепочку создание -> трек -> завершение на ограниченном пуле.
+// -Dorders.mode=pairwise|cartesian (по умолчанию pairwise), -Dorders.workers=N (по умолчанию 8).
+public class OrderVariantsTest {
+
+    @Test
+    @DisplayName("Создание и завершение заказов по сочетаниям параметров")
+    public void orderVariantsCanBeCreatedAndFinished() throws InterruptedException {
+        int workers = Integer.getInteger("orders.workers", 8);
+        AsyncClient client = new AsyncClient(workers);
+        // Генератор ленивый: заказов в работе и в очереди не больше двух на поток
+        Semaphore window = new Semaphore(workers * 2);
+        List<String> failures = new CopyOnWriteArrayList<>();
+        AtomicInteger total = new AtomicInteger();
+        try {
+            Iterator<CreateOrder> orders = OrderDataGenerator.orders(System.getProperty("orders.mode", OrderDataGenerator.PAIRWISE)).iterator();
+            while (orders.hasNext()) {
+                CreateOrder order = orders.next();
+                window.acquire();
+                total.incrementAndGet();
+                client.orderChain(order).whenComplete((response, error) -> {
+                    if (error != null) {
+                        failures.add(OrderDataGenerator.describe(order) + ": " + error.getMessage());
+                    } else if (response.ok() == null || !response.ok()) {
+                        failures.add(OrderDataGenerator.describe(order) + ": " + response.body());
+                    }
+                    window.release();
+                });
+            }
+            assertThat(window.tryAcquire(workers * 2, 5, TimeUnit.MINUTES), is(true));
+        } finally {
+            client.close();
+        }
+        assertThat(total.get(), greaterThan(0));
+        assertThat(failures, is(empty()));
+    }
+}
@@ -1,10 +1,65 @@
 package testOrder;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
-import static io.restassured.RestAssured.given;
+import testSupport.Cassette;
+import testSupport.ConnectionPool;
+import testSupport.Diagnostics;
+import testSupport.IdCache;
+import testSupport.LatencyFilter;
+import testSupport.PhaseTimings;
+import testSupport.Resilience;
+import testSupport.StartupProfile;
+import testSupport.Target;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class Specific {
+    private static final ConcurrentMap<String, RequestSpecification> SPECS = new ConcurrentHashMap<>();
+
+    // Спецификация собирается один раз на адрес и дальше только подмешивается через given().spec(...)
     public static RequestSpecification requestSpec(){
-        return given()
-                .baseUri("http://qa-scooter.praktikum-services.ru/");
+        return requestSpec(Target.baseUri());
+    }
+
+    public static RequestSpecification requestSpec(String baseUri) {
+        return SPECS.computeIfAbsent(baseUri, Specific::buildSpec);
+    }
+
+    // Временные адреса (FaultProxy на случайном порту) убираются из кэша при остановке, иначе кэш растёт с каждым прокси
+    public static void forget(String baseUri) {
+        SPECS.remove(baseUri);
+    }
+
+    private static RequestSpecification buildSpec(String baseUri) {
+        // Первая сборка включает инициализацию Groovy и REST-assured - она видна в профиле старта
+        StartupProfile.mark(StartupProfile.SPEC_STARTED);
+        HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> ConnectionPool.shared().httpClient());
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(baseUri)
+                .setContentType(ContentType.JSON)
+                .setConfig(RestAssuredConfig.config().httpClient(httpClientConfig))
+                .addFilter(LatencyFilter.filter())
+                .addFilter(Diagnostics.filter());
+        if (IdCache.enabled()) {
+            builder.addFilter(IdCache.filter());
+        }
+        if (PhaseTimings.enabled()) {
+            builder.addFilter(PhaseTimings.filter());
+        }
+        if (Cassette.enabled()) {
+            builder.addFilter(Cassette.filter());
+        }
+        if (Resilience.enabled()) {
+            builder.addFilter(Resilience.filter());
+        }
+        RequestSpecification spec = builder.build();
+        StartupProfile.mark(StartupProfile.SPEC_BUILT);
+        return spec;
     }
 }
@@ -0,0 +1,30 @@
+package testSupport;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+
+import java.nio.charset.StandardCharsets;
+
+// Подключается через META-INF/services: прикладывает отладочный вывод теста к результату, только если тест упал.
+public class AllureDiagnosticsListener implements TestLifecycleListener {
+
+    @Override
+    public void beforeTestStart(TestResult result) {
+        Diagnostics.startTest();
+    }
+
+    @Override
+    public void beforeTestStop(TestResult result) {
+        boolean failed = result.getStatus() == Status.FAILED || result.getStatus() == Status.BROKEN;
+        if (!failed) {
+            Diagnostics.discardTest();
+            return;
+        }
+        String text = Diagnostics.finishTest();
+        if (!text.isEmpty()) {
+            Allure.getLifecycle().addAttachment("Диагностика", "text/plain", "txt", text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package testSupport;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.TestResult;
+import org.HdrHistogram.Histogram;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Подключается через META-INF/services: прикладывает к результату теста сводку задержек его запросов.
+public class AllureLatencyListener implements TestLifecycleListener {
+
+    @Override
+    public void beforeTestStart(TestResult result) {
+        LatencyFilter.startTest();
+    }
+
+    @Override
+    public void beforeTestStop(TestResult result) {
+        Map<String, Histogram> histograms = LatencyFilter.finishTest();
+        if (!histograms.isEmpty()) {
+            Allure.getLifecycle().addAttachment("Задержки запросов", "text/plain", "txt",
+                    LatencyFilter.summary(histograms).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
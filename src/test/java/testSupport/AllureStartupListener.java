@@ -0,0 +1,13 @@
+package testSupport;
+
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.StepResult;
+
+// Подключается через META-INF/services: отмечает в профиле старта первый шаг Allure, то есть первый вызов через аспект @Step.
+public class AllureStartupListener implements StepLifecycleListener {
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        StartupProfile.mark(StartupProfile.FIRST_STEP);
+    }
+}
@@ -0,0 +1,84 @@
+package testSupport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import io.restassured.response.Response;
+
+// Ответ API, тело которого читается в строку и разбирается ровно один раз.
+// Поля, которые проверяют тесты и хелперы: track, id курьера, order.id, ok, message.
+public class ApiResponse {
+    private static final Gson GSON = new Gson();
+    private static final Body EMPTY = new Body();
+
+    private final Response response;
+    private String body;
+    private Body parsed;
+
+    private ApiResponse(Response response) {
+        this.response = response;
+    }
+
+    public static ApiResponse of(Response response) {
+        return new ApiResponse(response);
+    }
+
+    public Response raw() {
+        return response;
+    }
+
+    public int statusCode() {
+        return response.getStatusCode();
+    }
+
+    public String body() {
+        if (body == null) {
+            body = response.asString();
+        }
+        return body;
+    }
+
+    public Integer track() {
+        return parsed().track;
+    }
+
+    public Integer courierId() {
+        return parsed().id;
+    }
+
+    public String orderId() {
+        Body parsed = parsed();
+        return parsed.order == null || parsed.order.id == null ? null : String.valueOf(parsed.order.id);
+    }
+
+    public Boolean ok() {
+        return parsed().ok;
+    }
+
+    public String message() {
+        return parsed().message;
+    }
+
+    private Body parsed() {
+        if (parsed == null) {
+            String text = body().trim();
+            try {
+                parsed = text.startsWith("{") ? GSON.fromJson(text, Body.class) : EMPTY;
+            } catch (JsonSyntaxException e) {
+                parsed = EMPTY;
+            }
+        }
+        return parsed;
+    }
+
+    private static class Body {
+        private Integer track;
+        private Integer id;
+        private Boolean ok;
+        private String message;
+        private OrderRef order;
+    }
+
+    private static class OrderRef {
+        private Integer id;
+    }
+}
@@ -0,0 +1,227 @@
+package testSupport;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+// Запись и воспроизведение ответов API (-Dcassette.mode=record|replay, по умолчанию off).
+// Кассета (-Dcassette.file, по умолчанию target/cassettes/scooter.cassette) очищается в начале записи, затем записи только дописываются:
+// [ключ][код ответа][Content-Type][тело], длины - int. При воспроизведении файл отображается в память,
+// по ключам строится индекс смещений, тела читаются прямо из отображения.
+// В ключе идентификатор запуска и форк в логинах, имена, телефоны и метки времени заменены шаблонами,
+// номер логина внутри запуска сохраняется. Сначала ищется точный ключ,
+// затем ключ, где шаблонами заменены и все числа (id, трек-номера). Одинаковые ключи отдаются по порядку записи.
+public class Cassette implements OrderedFilter {
+    public static final String MODE_PROPERTY = "cassette.mode";
+    public static final String FILE_PROPERTY = "cassette.file";
+    public static final String RECORD = "record";
+    public static final String REPLAY = "replay";
+    public static final String OFF = "off";
+
+    private static final Pattern LOGIN = Pattern.compile("at[0-9a-z]+f\\d+n(\\d+)");
+    private static final Pattern NAME = Pattern.compile("Курьер[а-яё]+");
+    private static final Pattern PHONE = Pattern.compile("\\+79\\d{9}");
+    private static final Pattern TIMESTAMP = Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?(Z|[+-]\\d{2}:?\\d{2})?");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+
+    private static Cassette instance;
+
+    private final String mode;
+    private final File file;
+    private FileOutputStream out;
+    private MappedByteBuffer tape;
+    private final Map<String, List<Integer>> index = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    private Cassette(String mode, File file) {
+        this.mode = mode;
+        this.file = file;
+    }
+
+    public static String mode() {
+        return System.getProperty(MODE_PROPERTY, OFF);
+    }
+
+    public static boolean enabled() {
+        return !OFF.equals(mode());
+    }
+
+    public static synchronized Cassette filter() {
+        if (instance == null) {
+            String mode = mode();
+            if (!RECORD.equals(mode) && !REPLAY.equals(mode)) {
+                throw new IllegalArgumentException("Неизвестный режим кассеты: " + mode);
+            }
+            instance = new Cassette(mode, new File(System.getProperty(FILE_PROPERTY, "target/cassettes/scooter.cassette")));
+            if (REPLAY.equals(mode)) {
+                instance.load();
+            }
+        }
+        return instance;
+    }
+
+    // Внутри замера задержки и остальных фильтров, но снаружи Resilience: они видят воспроизведённый
+    // ответ как настоящий, а при записи в кассету попадает итог после повторов
+    @Override
+    public int getOrder() {
+        return OrderedFilter.LOWEST_PRECEDENCE - 1;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        String key = key(requestSpec);
+        if (REPLAY.equals(mode)) {
+            return replay(key);
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        record(key, response.getStatusCode(), response.getContentType(), response.asByteArray());
+        return response;
+    }
+
+    static String key(FilterableRequestSpecification requestSpec) {
+        URI uri = URI.create(requestSpec.getURI());
+        String query = uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery();
+        return exact(requestSpec.getMethod() + " " + uri.getRawPath() + query + " " + body(requestSpec.getBody()));
+    }
+
+    static String exact(String raw) {
+        String key = LOGIN.matcher(raw).replaceAll("{login-$1}");
+        key = NAME.matcher(key).replaceAll("{name}");
+        key = PHONE.matcher(key).replaceAll("{phone}");
+        return TIMESTAMP.matcher(key).replaceAll("{timestamp}");
+    }
+
+    static String loose(String exactKey) {
+        return NUMBER.matcher(exactKey).replaceAll("{n}");
+    }
+
+    private static String body(Object body) {
+        if (body == null) {
+            return "";
+        }
+        if (body instanceof byte[]) {
+            return new String((byte[]) body, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(body);
+    }
+
+    private synchronized void record(String key, int status, String contentType, byte[] body) {
+        try {
+            if (out == null) {
+                File dir = file.getAbsoluteFile().getParentFile();
+                if (!dir.isDirectory() && !dir.mkdirs()) {
+                    throw new IOException("не удалось создать каталог " + dir);
+                }
+                startSession();
+                out = new FileOutputStream(file, true);
+            }
+            // Запись уходит в файл одним write, чтобы записи форков не перемешались
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream record = new DataOutputStream(bytes);
+            writeBytes(record, key.getBytes(StandardCharsets.UTF_8));
+            record.writeInt(status);
+            writeBytes(record, (contentType == null ? "" : contentType).getBytes(StandardCharsets.UTF_8));
+            writeBytes(record, body == null ? new byte[0] : body);
+            out.write(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка записи кассеты " + file + ": " + e.getMessage());
+        }
+    }
+
+    // Новая запись начинается с пустой кассеты, иначе перезапись дублирует ответы.
+    // Форки одного запуска пишут в общий файл: очищает его только первый, метка запуска - в <кассета>.run
+    private void startSession() throws IOException {
+        File marker = new File(file.getPath() + ".run");
+        byte[] runId = UniqueIds.runId().getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(marker.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer recorded = ByteBuffer.allocate((int) channel.size());
+            channel.read(recorded, 0);
+            if (!Arrays.equals(recorded.array(), runId)) {
+                new FileOutputStream(file, false).close();
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(runId), 0);
+            }
+        }
+    }
+
+    private static void writeBytes(DataOutputStream record, byte[] bytes) throws IOException {
+        record.writeInt(bytes.length);
+        record.write(bytes);
+    }
+
+    private void load() {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            tape = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения кассеты " + file + ": " + e.getMessage());
+        }
+        while (tape.remaining() > 0) {
+            int position = tape.position();
+            String key = new String(readBytes(tape), StandardCharsets.UTF_8);
+            tape.getInt();
+            skipBytes(tape);
+            skipBytes(tape);
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(position);
+            index.computeIfAbsent(loose(key), k -> new ArrayList<>()).add(position);
+        }
+    }
+
+    private Response replay(String key) {
+        String found = index.containsKey(key) ? key : loose(key);
+        List<Integer> positions = index.get(found);
+        if (positions == null) {
+            throw new RuntimeException("Ошибка воспроизведения: в кассете " + file + " нет ответа на " + key);
+        }
+        int next = cursors.computeIfAbsent(found, k -> new AtomicInteger()).getAndIncrement();
+        // Записи кончились - повторяем последнюю
+        ByteBuffer record = tape.duplicate();
+        record.position(positions.get(Math.min(next, positions.size() - 1)));
+        skipBytes(record);
+        int status = record.getInt();
+        String contentType = new String(readBytes(record), StandardCharsets.UTF_8);
+        byte[] body = readBytes(record);
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine("HTTP/1.1 " + status)
+                .setBody(body);
+        if (!contentType.isEmpty()) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void skipBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        buffer.position(buffer.position() + length);
+    }
+}
@@ -0,0 +1,255 @@
+package testSupport;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.HttpInetSocketAddress;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.ClientParamsStack;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Общий пул keep-alive соединений для всех запросов REST-assured.
+// Размер пула: -Dhttp.pool.size=N (по умолчанию 64).
+// TLS-сессии переиспользуются за счёт общего SSLContext и его кэша сессий.
+// Таймауты отдельного запроса задаются из его потока через requestTimeouts(...) (так делает Resilience).
+// Фазы обмена (DNS, соединение, TLS, отправка, ожидание ответа, загрузка тела) отдаются в PhaseTimings.
+@SuppressWarnings("deprecation")
+public class ConnectionPool {
+    public static final String POOL_SIZE_PROPERTY = "http.pool.size";
+    private static final int DEFAULT_POOL_SIZE = 64;
+
+    private static final ThreadLocal<HttpParams> REQUEST_TIMEOUTS = new ThreadLocal<>();
+
+    private static ConnectionPool shared;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+    private final PoolingClientConnectionManager manager;
+    private final DefaultHttpClient httpClient;
+
+    public ConnectionPool(int size) {
+        manager = new PoolingClientConnectionManager(schemes(), 60, TimeUnit.SECONDS) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+                return new DefaultClientConnectionOperator(registry) {
+                    @Override
+                    public void openConnection(OperatedClientConnection connection, HttpHost target, InetAddress local,
+                                               HttpContext context, HttpParams params) throws IOException {
+                        try {
+                            super.openConnection(connection, target, local, context, params);
+                        } catch (IOException e) {
+                            PhaseTimings.failed(e);
+                            throw e;
+                        }
+                        opened.incrementAndGet();
+                    }
+
+                    @Override
+                    protected InetAddress[] resolveHostname(String host) throws UnknownHostException {
+                        long started = System.nanoTime();
+                        InetAddress[] addresses = super.resolveHostname(host);
+                        PhaseTimings.dns(started, System.nanoTime());
+                        return addresses;
+                    }
+                };
+            }
+        };
+        manager.setMaxTotal(size);
+        manager.setDefaultMaxPerRoute(size);
+        httpClient = new DefaultHttpClient(manager) {
+            @Override
+            protected HttpParams determineParams(HttpRequest request) {
+                return new ClientParamsStack(null, getParams(), request.getParams(), REQUEST_TIMEOUTS.get());
+            }
+
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return new TimedRequestExecutor();
+            }
+        };
+        // Встроенный повтор HttpClient обходит бюджет и список идемпотентных вызовов Resilience - отключаем
+        httpClient.setHttpRequestRetryHandler(new DefaultHttpRequestRetryHandler(0, false));
+        httpClient.addRequestInterceptor((request, context) -> requests.incrementAndGet());
+    }
+
+    public static synchronized ConnectionPool shared() {
+        if (shared == null) {
+            shared = new ConnectionPool(Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE));
+        }
+        return shared;
+    }
+
+    public static void requestTimeouts(int connectMillis, int socketMillis) {
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, connectMillis);
+        HttpConnectionParams.setSoTimeout(params, socketMillis);
+        REQUEST_TIMEOUTS.set(params);
+    }
+
+    public static void clearRequestTimeouts() {
+        REQUEST_TIMEOUTS.remove();
+    }
+
+    public HttpClient httpClient() {
+        return httpClient;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long connectionsOpened() {
+        return opened.get();
+    }
+
+    public long connectionsReused() {
+        return Math.max(0, requests.get() - opened.get());
+    }
+
+    public int size() {
+        return manager.getMaxTotal();
+    }
+
+    public int leased() {
+        return manager.getTotalStats().getLeased();
+    }
+
+    public int available() {
+        return manager.getTotalStats().getAvailable();
+    }
+
+    public void close() {
+        manager.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "Запросов: " + requests() + ", новых соединений: " + connectionsOpened()
+                + ", переиспользовано: " + connectionsReused() + ", в пуле: " + available();
+    }
+
+    private static SchemeRegistry schemes() {
+        SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("http", 80, new TimedSocketFactory()));
+        try {
+            registry.register(new Scheme("https", 443, new TimedTlsSocketFactory(
+                    new SSLSocketFactory(SSLContext.getDefault(), SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER))));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Ошибка при создании TLS-контекста: " + e.getMessage(), e);
+        }
+        return registry;
+    }
+
+    // Отправка запроса и ожидание ответа до разобранных заголовков; тело читается позже
+    private static class TimedRequestExecutor extends HttpRequestExecutor {
+        @Override
+        protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection connection, HttpContext context)
+                throws IOException, HttpException {
+            long started = System.nanoTime();
+            try {
+                HttpResponse response = super.doSendRequest(request, connection, context);
+                PhaseTimings.sent(started, System.nanoTime());
+                return response;
+            } catch (IOException e) {
+                PhaseTimings.failed(e);
+                throw e;
+            }
+        }
+
+        @Override
+        protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection connection, HttpContext context)
+                throws HttpException, IOException {
+            try {
+                HttpResponse response = super.doReceiveResponse(request, connection, context);
+                PhaseTimings.received(response, System.nanoTime());
+                return response;
+            } catch (IOException e) {
+                PhaseTimings.failed(e);
+                throw e;
+            }
+        }
+    }
+
+    // TCP-соединение и TLS-рукопожатие меряются раздельно: сначала обычный сокет, потом TLS поверх него
+    private static class TimedSocketFactory implements SchemeSocketFactory {
+        private final PlainSocketFactory plain = PlainSocketFactory.getSocketFactory();
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return plain.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, ConnectTimeoutException {
+            long started = System.nanoTime();
+            Socket connected = plain.connectSocket(socket, remoteAddress, localAddress, params);
+            PhaseTimings.connect(started, System.nanoTime());
+            return connected;
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return false;
+        }
+    }
+
+    private static class TimedTlsSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+        private final SSLSocketFactory tls;
+
+        private TimedTlsSocketFactory(SSLSocketFactory tls) {
+            this.tls = tls;
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, ConnectTimeoutException {
+            Socket connected = super.connectSocket(socket, remoteAddress, localAddress, params);
+            String host = remoteAddress instanceof HttpInetSocketAddress
+                    ? ((HttpInetSocketAddress) remoteAddress).getHttpHost().getHostName() : remoteAddress.getHostName();
+            long started = System.nanoTime();
+            Socket secured = tls.createLayeredSocket(connected, host, remoteAddress.getPort(), params);
+            PhaseTimings.tls(started, System.nanoTime());
+            return secured;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params) throws IOException {
+            return tls.createLayeredSocket(socket, target, port, params);
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return tls.isSecure(socket);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package testSupport;
+
+import io.restassured.response.Response;
+import testOrder.Specific;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+// Пул заранее созданных курьеров с уже известными id для тестов, которым нужен "какой-нибудь" валидный курьер.
+// Все курьеры создаются параллельно при первой выдаче, удаляются один раз в конце запуска через Fixtures.
+// Размер пула: -Dcourier.pool.size=N (по умолчанию 4).
+public class CourierPool {
+    public static final String SIZE_PROPERTY = "courier.pool.size";
+    private static final String PASSWORD = "1234";
+    private static final long LEASE_TIMEOUT_SECONDS = 30;
+
+    private static CourierPool shared;
+
+    private final BlockingQueue<PooledCourier> idle = new LinkedBlockingQueue<>();
+
+    private CourierPool(int size) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(size, 16), runnable -> {
+            Thread thread = new Thread(runnable, "courier-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<PooledCourier>> futures = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                // Логины выдаются заранее по порядку, чтобы от запуска к запуску они не зависели от гонки потоков
+                String login = UniqueIds.login();
+                String firstName = UniqueIds.firstName();
+                futures.add(CompletableFuture.supplyAsync(() -> provision(login, firstName), executor));
+            }
+            for (CompletableFuture<PooledCourier> future : futures) {
+                idle.add(future.join());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static synchronized CourierPool shared() {
+        if (shared == null) {
+            shared = new CourierPool(Math.max(1, Integer.getInteger(SIZE_PROPERTY, 4)));
+        }
+        return shared;
+    }
+
+    public PooledCourier lease() {
+        try {
+            PooledCourier courier = idle.poll(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (courier == null) {
+                throw new RuntimeException("Нет свободных курьеров в пуле за " + LEASE_TIMEOUT_SECONDS + " с, увеличьте " + SIZE_PROPERTY);
+            }
+            return courier;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ожидание курьера из пула прервано", e);
+        }
+    }
+
+    public void release(PooledCourier courier) {
+        if (courier != null) {
+            idle.add(courier);
+        }
+    }
+
+    private static PooledCourier provision(String login, String firstName) {
+        Response created = given()
+                .spec(Specific.requestSpec())
+                .body("{ \"login\": \"" + login + "\", \"password\": \"" + PASSWORD + "\", \"firstName\": \"" + firstName + "\" }")
+                .post("/api/v1/courier");
+        if (created.getStatusCode() != 201) {
+            throw new RuntimeException("Ошибка при создании курьера для пула. Код ответа: " + created.getStatusCode() + ", Тело ответа: " + created.asString());
+        }
+        Response loggedIn = given()
+                .spec(Specific.requestSpec())
+                .body("{ \"login\": \"" + login + "\", \"password\": \"" + PASSWORD + "\" }")
+                .post("/api/v1/courier/login");
+        if (loggedIn.getStatusCode() != 200) {
+            throw new RuntimeException("Ошибка при входе курьера из пула. Код ответа: " + loggedIn.getStatusCode() + ", Тело ответа: " + loggedIn.asString());
+        }
+        int id = ApiResponse.of(loggedIn).courierId();
+        Fixtures.courier(CourierPool.class, id);
+        return new PooledCourier(login, PASSWORD, firstName, id);
+    }
+
+    public static class PooledCourier {
+        private final String login;
+        private final String password;
+        private final String firstName;
+        private final int id;
+
+        PooledCourier(String login, String password, String firstName, int id) {
+            this.login = login;
+            this.password = password;
+            this.firstName = firstName;
+            this.id = id;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
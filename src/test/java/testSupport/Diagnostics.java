@@ -0,0 +1,183 @@
+package testSupport;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Отладочный вывод тестов вместо System.out. Сообщения копятся в кольцевом буфере текущего теста
+// (-Ddiag.capacity, по умолчанию 64 последних) и форматируются только при выгрузке: к результату Allure
+// их прикладывает AllureDiagnosticsListener, если тест упал. Уровень отсечения -Ddiag.level (DEBUG по умолчанию, INFO, WARN, OFF),
+// доля сохраняемых DEBUG/INFO -Ddiag.sample (0..1, по умолчанию 1; нагрузочные раннеры ставят 0.01).
+// Настройки читаются один раз при загрузке класса.
+// Сообщения из потоков вне теста попадают в общий буфер, его забирает drainShared().
+public class Diagnostics {
+    public static final String LEVEL_PROPERTY = "diag.level";
+    public static final String SAMPLE_PROPERTY = "diag.sample";
+    public static final String CAPACITY_PROPERTY = "diag.capacity";
+
+    public enum Level { DEBUG, INFO, WARN, OFF }
+
+    private static final Level THRESHOLD = threshold();
+    private static final double SAMPLE = sample();
+    private static final int CAPACITY = Math.max(1, Integer.getInteger(CAPACITY_PROPERTY, 64));
+    private static final ThreadLocal<Ring> TEST = new ThreadLocal<>();
+    private static final Ring SHARED = new Ring(CAPACITY);
+    private static final OrderedFilter FILTER = new OrderedFilter() {
+        @Override
+        public int getOrder() {
+            return OrderedFilter.HIGHEST_PRECEDENCE + 2;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            Response response = ctx.next(requestSpec, responseSpec);
+            String method = requestSpec.getMethod();
+            String uri = requestSpec.getURI();
+            Object body = requestSpec.getBody();
+            String correlationId = requestSpec.getHeaders().getValue(PhaseTimings.HEADER);
+            debug(() -> method + " " + uri + (correlationId == null ? "" : " [" + correlationId + "]") + (body == null ? "" : " " + body)
+                    + "\n  -> " + response.getStatusCode() + " " + response.asString());
+            return response;
+        }
+    };
+
+    // Запрос и ответ целиком, тело ответа превращается в строку только при выгрузке
+    public static OrderedFilter filter() {
+        return FILTER;
+    }
+
+    public static void debug(Supplier<String> message) {
+        log(Level.DEBUG, message);
+    }
+
+    public static void info(Supplier<String> message) {
+        log(Level.INFO, message);
+    }
+
+    public static void warn(Supplier<String> message) {
+        log(Level.WARN, message);
+    }
+
+    public static void log(Level level, Supplier<String> message) {
+        if (level.compareTo(THRESHOLD) < 0 || level == Level.OFF) {
+            return;
+        }
+        if (level != Level.WARN && SAMPLE < 1 && ThreadLocalRandom.current().nextDouble() >= SAMPLE) {
+            return;
+        }
+        Ring ring = TEST.get();
+        Entry entry = new Entry(System.currentTimeMillis(), level, Thread.currentThread().getName(), message);
+        if (ring != null) {
+            ring.add(entry);
+        } else {
+            synchronized (SHARED) {
+                SHARED.add(entry);
+            }
+        }
+    }
+
+    public static void startTest() {
+        TEST.set(new Ring(CAPACITY));
+    }
+
+    // Тест прошёл: буфер выбрасывается без форматирования
+    public static void discardTest() {
+        TEST.remove();
+    }
+
+    // Снимает буфер текущего теста; форматирование происходит только здесь
+    public static String finishTest() {
+        Ring ring = TEST.get();
+        TEST.remove();
+        return ring == null ? "" : format(ring.drain());
+    }
+
+    public static String drainShared() {
+        List<Entry> entries;
+        synchronized (SHARED) {
+            entries = SHARED.drain();
+        }
+        return format(entries);
+    }
+
+    private static String format(List<Entry> entries) {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+        StringBuilder text = new StringBuilder();
+        for (Entry entry : entries) {
+            String message;
+            try {
+                message = entry.message.get();
+            } catch (RuntimeException e) {
+                message = "Ошибка при форматировании сообщения: " + e;
+            }
+            text.append(time.format(new Date(entry.time))).append(' ').append(entry.level)
+                    .append(" [").append(entry.thread).append("] ").append(message).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static Level threshold() {
+        try {
+            return Level.valueOf(System.getProperty(LEVEL_PROPERTY, "DEBUG").trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.DEBUG;
+        }
+    }
+
+    private static double sample() {
+        try {
+            return Double.parseDouble(System.getProperty(SAMPLE_PROPERTY, "1"));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private static class Entry {
+        private final long time;
+        private final Level level;
+        private final String thread;
+        private final Supplier<String> message;
+
+        private Entry(long time, Level level, String thread, Supplier<String> message) {
+            this.time = time;
+            this.level = level;
+            this.thread = thread;
+            this.message = message;
+        }
+    }
+
+    // Старые записи затираются новыми
+    private static class Ring {
+        private final Entry[] entries;
+        private long written;
+
+        private Ring(int capacity) {
+            entries = new Entry[capacity];
+        }
+
+        private void add(Entry entry) {
+            entries[(int) (written++ % entries.length)] = entry;
+        }
+
+        private List<Entry> drain() {
+            int size = (int) Math.min(written, entries.length);
+            List<Entry> result = new ArrayList<>(size);
+            for (long i = written - size; i < written; i++) {
+                int slot = (int) (i % entries.length);
+                result.add(entries[slot]);
+                entries[slot] = null;
+            }
+            written = 0;
+            return result;
+        }
+    }
+}
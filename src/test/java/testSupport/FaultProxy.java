@@ -0,0 +1,317 @@
+package testSupport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import testOrder.Specific;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Прокси между тестами и любым адресом API (реальный стенд или ScooterStub), портящий ответы по правилам:
+// задержка из распределения, ограничение скорости отдачи, обрыв соединения без ответа, серии 5xx, зависание посреди тела.
+// Правило выбирается по методу и началу пути, первое подходящее. Пример:
+//   FaultProxy proxy = new FaultProxy(Target.baseUri()).start();
+//   proxy.rule("POST", "/api/v1/orders").latency(FaultProxy.uniform(100, 300));
+//   try (Target.Routing ignored = Target.use(proxy.baseUri())) { ... }
+public class FaultProxy {
+    // Заголовки одного соединения не пересылаются; Host и Content-Length выставит HttpURLConnection.
+    // Accept-Encoding тоже: прокси отдаёт тело как получил, без Content-Encoding
+    private static final Set<String> HOP_BY_HOP = new HashSet<>(Arrays.asList("connection", "keep-alive",
+            "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade",
+            "host", "content-length", "accept-encoding"));
+
+    private final String upstream;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    public FaultProxy(String upstream) {
+        this.upstream = upstream.endsWith("/") ? upstream.substring(0, upstream.length() - 1) : upstream;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при запуске прокси: " + e.getMessage(), e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fault-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public FaultProxy start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        Specific.forget(baseUri());
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String baseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    // method = null - любой метод
+    public Rule rule(String method, String pathPrefix) {
+        Rule rule = new Rule(method, pathPrefix);
+        rules.add(rule);
+        return rule;
+    }
+
+    public void clear() {
+        rules.clear();
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public static LongSupplier fixed(long millis) {
+        return () -> millis;
+    }
+
+    public static LongSupplier uniform(long minMillis, long maxMillis) {
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    public static LongSupplier normal(long meanMillis, long deviationMillis) {
+        return () -> Math.max(0, Math.round(meanMillis + ThreadLocalRandom.current().nextGaussian() * deviationMillis));
+    }
+
+    public static LongSupplier exponential(long meanMillis) {
+        return () -> Math.round(-meanMillis * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    // Обычно base, с вероятностью probability - выброс spikeMillis (длинный хвост)
+    public static LongSupplier spikes(LongSupplier base, double probability, long spikeMillis) {
+        return () -> ThreadLocalRandom.current().nextDouble() < probability ? spikeMillis : base.getAsLong();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        Rule rule = null;
+        for (Rule candidate : rules) {
+            if (candidate.matches(method, path)) {
+                rule = candidate;
+                break;
+            }
+        }
+        try {
+            if (rule != null) {
+                rule.hits.incrementAndGet();
+                sleep(rule.latency.getAsLong());
+                if (rule.takeReset()) {
+                    // Закрытие до отправки заголовков рвёт соединение, клиент не получает ни байта ответа
+                    exchange.close();
+                    return;
+                }
+                int status = rule.takeError();
+                if (status != 0) {
+                    byte[] body = ("{\"code\":" + status + ",\"message\":\"Ошибка, внесённая прокси\"}").getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                    exchange.sendResponseHeaders(status, body.length);
+                    write(exchange, body, rule);
+                    return;
+                }
+            }
+            forward(exchange, rule);
+        } catch (IOException | RuntimeException e) {
+            exchange.close();
+        }
+    }
+
+    private void forward(HttpExchange exchange, Rule rule) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        URL url = new URL(upstream + exchange.getRequestURI().getRawPath() + (query == null ? "" : "?" + query));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(exchange.getRequestMethod());
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            if (!HOP_BY_HOP.contains(header.getKey().toLowerCase())) {
+                for (String value : header.getValue()) {
+                    connection.addRequestProperty(header.getKey(), value);
+                }
+            }
+        }
+        byte[] requestBody = readAll(exchange.getRequestBody());
+        if (requestBody.length > 0) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(requestBody);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        byte[] body = in == null ? new byte[0] : readAll(in);
+        String responseType = connection.getContentType();
+        if (responseType != null) {
+            exchange.getResponseHeaders().set("Content-Type", responseType);
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        write(exchange, body, rule);
+    }
+
+    // Отдача тела с учётом ограничения скорости и зависания посередине
+    private static void write(HttpExchange exchange, byte[] body, Rule rule) throws IOException {
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (rule == null || (rule.bytesPerSecond <= 0 && rule.stallMillis <= 0)) {
+                out.write(body);
+                return;
+            }
+            int chunk = rule.bytesPerSecond > 0 ? Math.max(1, (int) (rule.bytesPerSecond / 10)) : body.length;
+            // Кусок обрезается по середине тела, иначе короткое тело уходит целиком и зависания нет
+            int stallAt = rule.stallMillis > 0 ? body.length / 2 : -1;
+            int offset = 0;
+            while (offset < body.length) {
+                if (offset == stallAt) {
+                    sleep(rule.stallMillis);
+                }
+                int end = Math.min(body.length, offset + chunk);
+                if (offset < stallAt && end > stallAt) {
+                    end = stallAt;
+                }
+                // Пауза перед куском: последний байт приходит не раньше, чем позволяет скорость
+                if (rule.bytesPerSecond > 0) {
+                    sleep(TimeUnit.SECONDS.toMillis(end - offset) / rule.bytesPerSecond);
+                }
+                out.write(body, offset, end - offset);
+                out.flush();
+                offset = end;
+            }
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        in.close();
+        return buffer.toByteArray();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Rule {
+        private final String method;
+        private final String pathPrefix;
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicInteger resetsLeft = new AtomicInteger();
+        private final AtomicInteger errorsLeft = new AtomicInteger();
+        private volatile LongSupplier latency = fixed(0);
+        private volatile double resetProbability;
+        private volatile double errorProbability;
+        private volatile int errorStatus = 503;
+        private volatile long bytesPerSecond;
+        private volatile long stallMillis;
+
+        private Rule(String method, String pathPrefix) {
+            this.method = method;
+            this.pathPrefix = pathPrefix;
+        }
+
+        public Rule latency(LongSupplier millis) {
+            latency = millis;
+            return this;
+        }
+
+        public Rule bandwidth(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        // Половина тела уходит сразу, остальное - через stallMillis
+        public Rule slowBody(long stallMillis) {
+            this.stallMillis = stallMillis;
+            return this;
+        }
+
+        public Rule resetNext(int count) {
+            resetsLeft.set(count);
+            return this;
+        }
+
+        public Rule resetRate(double probability) {
+            resetProbability = probability;
+            return this;
+        }
+
+        // Серия из count ответов со статусом status
+        public Rule errorBurst(int status, int count) {
+            errorStatus = status;
+            errorsLeft.set(count);
+            return this;
+        }
+
+        public Rule errorRate(int status, double probability) {
+            errorStatus = status;
+            errorProbability = probability;
+            return this;
+        }
+
+        public int hits() {
+            return hits.get();
+        }
+
+        private boolean matches(String requestMethod, String path) {
+            return (method == null || method.equalsIgnoreCase(requestMethod)) && path.startsWith(pathPrefix);
+        }
+
+        private boolean takeReset() {
+            return take(resetsLeft) || (resetProbability > 0 && ThreadLocalRandom.current().nextDouble() < resetProbability);
+        }
+
+        private int takeError() {
+            boolean error = take(errorsLeft) || (errorProbability > 0 && ThreadLocalRandom.current().nextDouble() < errorProbability);
+            return error ? errorStatus : 0;
+        }
+
+        private static boolean take(AtomicInteger left) {
+            int current;
+            do {
+                current = left.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!left.compareAndSet(current, current - 1));
+            return true;
+        }
+    }
+}
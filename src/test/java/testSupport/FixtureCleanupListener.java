@@ -0,0 +1,23 @@
+package testSupport;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+// Подключается в surefire рядом с AllureJunit4: в начале запуска дочищает хвосты упавших запусков,
+// в конце удаляет всё, что не убрали классы в @AfterClass.
+public class FixtureCleanupListener extends RunListener {
+
+    @Override
+    public void testRunStarted(Description description) {
+        int swept = Fixtures.sweepOrphans();
+        if (swept > 0) {
+            System.out.println("Удалено оставшихся от прошлых запусков сущностей: " + swept);
+        }
+    }
+
+    @Override
+    public void testRunFinished(Result result) {
+        Fixtures.releaseAll();
+    }
+}
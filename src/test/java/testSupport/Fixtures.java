@@ -0,0 +1,294 @@
+package testSupport;
+
+import io.restassured.response.Response;
+import testOrder.Specific;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+
+// Реестр созданных тестами курьеров и заказов. Удаление откладывается до конца класса или всего запуска
+// и идёт параллельно пачками; повторная регистрация и повторное удаление одной сущности игнорируются.
+// Каждая регистрация пишется в журнал .fixtures/<runId>-fork<N>.journal (-Dfixtures.dir), журнал удаляется после уборки.
+// Каталог вне target/, чтобы mvn clean не стирал журналы упавших запусков до sweepOrphans().
+// Журналы прошлых запусков, оставшиеся после падения JVM, разбирает sweepOrphans(). Живой журнал держит блокировку файла,
+// поэтому журналы параллельной сборки в том же каталоге не трогаются. Сущность, которую не удалось удалить, остаётся
+// в журнале без отметки released и дочищается следующим запуском.
+public class Fixtures {
+    public static final String DIR_PROPERTY = "fixtures.dir";
+    public static final String THREADS_PROPERTY = "fixtures.threads";
+    public static final String BATCH_PROPERTY = "fixtures.batch";
+    private static final String COURIER = "courier";
+    private static final String ORDER = "order";
+    private static final String RELEASED = "released";
+    private static final String TARGET = "target";
+
+    private static final Map<String, String> OWNERS = new ConcurrentHashMap<>();
+    private static final Set<String> RELEASED_KEYS = ConcurrentHashMap.newKeySet();
+    private static Writer journal;
+    private static FileLock journalLock;
+
+    static {
+        // Встроенная заглушка останавливается своим хуком, убирать в ней нечего
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!Target.isEmbedded()) {
+                releaseAll();
+            }
+        }));
+    }
+
+    public static void courier(Class<?> owner, int courierId) {
+        if (courierId != -1) {
+            register(owner, COURIER + " " + courierId);
+        }
+    }
+
+    public static void order(Class<?> owner, String orderId) {
+        if (orderId != null) {
+            register(owner, ORDER + " " + orderId);
+        }
+    }
+
+    // Тест уже удалил сущность сам: запоминаем, чтобы не удалять повторно
+    public static void courierReleased(int courierId) {
+        markReleased(COURIER + " " + courierId);
+    }
+
+    public static void orderReleased(String orderId) {
+        markReleased(ORDER + " " + orderId);
+    }
+
+    public static void release(Class<?> owner) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, String> entry : OWNERS.entrySet()) {
+            if (entry.getValue().equals(owner.getName())) {
+                keys.add(entry.getKey());
+            }
+        }
+        releaseKeys(keys);
+    }
+
+    public static synchronized void releaseAll() {
+        releaseKeys(new ArrayList<>(OWNERS.keySet()));
+        if (journal != null && OWNERS.isEmpty()) {
+            try {
+                if (journalLock != null) {
+                    journalLock.release();
+                }
+                journal.close();
+            } catch (IOException ignored) {
+            }
+            journal = null;
+            journalLock = null;
+            journalFile().delete();
+        }
+    }
+
+    public static int pending() {
+        return OWNERS.size();
+    }
+
+    // Дочищает сущности из журналов прошлых запусков с тем же адресом API
+    public static int sweepOrphans() {
+        File[] journals = dir().listFiles((dir, name) -> name.endsWith(".journal")
+                && !name.startsWith(UniqueIds.runId() + "-"));
+        if (journals == null) {
+            return 0;
+        }
+        int swept = 0;
+        for (File file : journals) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock lock = tryLock(channel)) {
+                if (lock == null) {
+                    continue; // журнал идущего запуска
+                }
+                List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+                if (lines.isEmpty() || Target.isEmbedded() || !lines.get(0).equals(TARGET + " " + Target.label())) {
+                    if (!lines.isEmpty() && lines.get(0).equals(TARGET + " " + Target.EMBEDDED)) {
+                        file.delete(); // заглушка умерла вместе со своей JVM
+                    }
+                    continue;
+                }
+                Map<String, Boolean> keys = new LinkedHashMap<>();
+                for (String line : lines.subList(1, lines.size())) {
+                    if (line.startsWith(RELEASED + " ")) {
+                        keys.put(line.substring(RELEASED.length() + 1), false);
+                    } else if (!keys.containsKey(line)) {
+                        keys.put(line, true);
+                    }
+                }
+                List<String> orphans = new ArrayList<>();
+                for (Map.Entry<String, Boolean> entry : keys.entrySet()) {
+                    if (entry.getValue()) {
+                        orphans.add(entry.getKey());
+                    }
+                }
+                List<String> released = runInBatches(orphans);
+                swept += released.size();
+                // Неудалённые остаются в журнале до следующего запуска
+                if (released.size() == orphans.size()) {
+                    file.delete();
+                }
+            } catch (IOException e) {
+                System.err.println("Не удалось разобрать журнал " + file + ": " + e.getMessage());
+            }
+        }
+        return swept;
+    }
+
+    private static void register(Class<?> owner, String key) {
+        if (RELEASED_KEYS.contains(key) || OWNERS.putIfAbsent(key, owner.getName()) != null) {
+            return;
+        }
+        writeJournal(key);
+    }
+
+    private static void markReleased(String key) {
+        if (RELEASED_KEYS.add(key)) {
+            OWNERS.remove(key);
+            writeJournal(RELEASED + " " + key);
+        }
+    }
+
+    private static void releaseKeys(List<String> keys) {
+        Map<String, String> claimed = new LinkedHashMap<>();
+        for (String key : keys) {
+            String owner = OWNERS.remove(key);
+            if (owner != null && RELEASED_KEYS.add(key)) {
+                claimed.put(key, owner);
+            }
+        }
+        List<String> released = runInBatches(new ArrayList<>(claimed.keySet()));
+        for (String key : released) {
+            writeJournal(RELEASED + " " + key);
+        }
+        // Неудачное удаление возвращается в реестр: releaseAll() попробует ещё раз, журнал останется для sweepOrphans()
+        for (Map.Entry<String, String> entry : claimed.entrySet()) {
+            if (!released.contains(entry.getKey())) {
+                RELEASED_KEYS.remove(entry.getKey());
+                OWNERS.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // Ключи, которых на стороне API больше нет (удалены сейчас или уже раньше)
+    private static List<String> runInBatches(List<String> keys) {
+        List<String> released = Collections.synchronizedList(new ArrayList<>());
+        if (keys.isEmpty()) {
+            return released;
+        }
+        int maxThreads = Math.max(1, Integer.getInteger(THREADS_PROPERTY, 8));
+        int batch = Math.max(1, Math.min(Integer.getInteger(BATCH_PROPERTY, 25), (keys.size() + maxThreads - 1) / maxThreads));
+        int threads = Math.min(maxThreads, (keys.size() + batch - 1) / batch);
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fixtures-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += batch) {
+            List<String> part = keys.subList(from, Math.min(keys.size(), from + batch));
+            futures.add(executor.submit(() -> {
+                for (String key : part) {
+                    try {
+                        if (delete(key)) {
+                            released.add(key);
+                        }
+                    } catch (RuntimeException e) {
+                        System.err.println("Не удалось удалить " + key + ": " + e.getMessage());
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                System.err.println("Ошибка при удалении тестовых данных: " + e.getMessage());
+            }
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new ArrayList<>(released);
+    }
+
+    // 404 значит, что сущности уже нет, это не ошибка
+    private static boolean delete(String key) {
+        String[] parts = key.split(" ", 2);
+        Response response;
+        if (COURIER.equals(parts[0])) {
+            response = given().spec(Specific.requestSpec()).delete("/api/v1/courier/" + parts[1]);
+        } else {
+            response = given().spec(Specific.requestSpec()).put("/api/v1/orders/finish?id=" + parts[1]);
+        }
+        int status = response.getStatusCode();
+        if (status != 200 && status != 404) {
+            System.err.println("Не удалось удалить " + key + ". Код ответа: " + status + ", Тело ответа: " + response.asString());
+        }
+        return status == 200 || status == 404;
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static synchronized void writeJournal(String line) {
+        try {
+            if (journal == null) {
+                File dir = dir();
+                if (!dir.isDirectory() && !dir.mkdirs()) {
+                    return;
+                }
+                FileChannel channel = FileChannel.open(journalFile().toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                // Блокировка держится до удаления журнала: по ней sweepOrphans() других запусков видит, что запуск жив
+                journalLock = channel.tryLock();
+                journal = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1));
+                journal.write(TARGET + " " + Target.label() + "\n");
+            }
+            journal.write(line + "\n");
+            journal.flush();
+        } catch (IOException e) {
+            System.err.println("Не удалось записать журнал тестовых данных: " + e.getMessage());
+        }
+    }
+
+    private static File dir() {
+        return new File(System.getProperty(DIR_PROPERTY, ".fixtures"));
+    }
+
+    private static File journalFile() {
+        return new File(dir(), UniqueIds.runId() + "-fork" + UniqueIds.fork() + ".journal");
+    }
+}
@@ -0,0 +1,117 @@
+package testSupport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Кэш id курьера по логину и паролю, чтобы повторный поиск id не делал лишний логин.
+// Заполняется фильтром из ответов на логин, сбрасывается удалением курьера. Первый поиск всегда идёт запросом:
+// ответ на создание курьера id не несёт. Id заказа не кэшируется: он есть только в ответе по треку,
+// а этот запрос и так делается один раз на заказ.
+// Фильтр стоит снаружи LatencyFilter, поэтому разбор ответов в замер задержки не входит. Выключается -Did.cache=false.
+public class IdCache implements OrderedFilter {
+    public static final String ENABLED_PROPERTY = "id.cache";
+
+    private static final Gson GSON = new Gson();
+    private static final IdCache INSTANCE = new IdCache();
+
+    private final ConcurrentMap<String, Integer> couriers = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public static IdCache filter() {
+        return INSTANCE;
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    // null - в кэше нет, нужен запрос
+    public static Integer courierId(String login, String password) {
+        return INSTANCE.count(INSTANCE.couriers.get(courierKey(login, password)));
+    }
+
+    public static long hits() {
+        return INSTANCE.hits.get();
+    }
+
+    public static long misses() {
+        return INSTANCE.misses.get();
+    }
+
+    public static String summary() {
+        return "Кэш id: попаданий " + hits() + ", промахов " + misses();
+    }
+
+    @Override
+    public int getOrder() {
+        return OrderedFilter.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        int status = response.getStatusCode();
+        if (status != 200) {
+            return response;
+        }
+        String endpoint = LatencyFilter.endpoint(requestSpec.getMethod(), requestSpec.getURI());
+        switch (endpoint) {
+            case "POST /api/v1/courier/login":
+                JsonObject credentials = object(requestSpec.getBody());
+                JsonObject login = object(response.asString());
+                if (credentials != null && login != null && has(credentials, "login") && has(credentials, "password") && has(login, "id")) {
+                    couriers.put(courierKey(credentials.get("login").getAsString(), credentials.get("password").getAsString()),
+                            login.get("id").getAsInt());
+                }
+                break;
+            case "DELETE /api/v1/courier/{id}":
+                String path = URI.create(requestSpec.getURI()).getRawPath();
+                String courierId = path.substring(path.lastIndexOf('/') + 1);
+                couriers.values().removeIf(id -> String.valueOf(id).equals(courierId));
+                break;
+            default:
+                break;
+        }
+        return response;
+    }
+
+    private <T> T count(T value) {
+        (value == null ? misses : hits).incrementAndGet();
+        return value;
+    }
+
+    private static String courierKey(String login, String password) {
+        return login + "\n" + password;
+    }
+
+    private static boolean has(JsonObject object, String field) {
+        JsonElement value = object.get(field);
+        return value != null && value.isJsonPrimitive();
+    }
+
+    private static JsonObject object(Object body) {
+        if (body == null) {
+            return null;
+        }
+        String text = body instanceof String ? (String) body : GSON.toJson(body);
+        try {
+            JsonElement element = JsonParser.parseString(text);
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package testSupport;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Бюджет задержек теста, проверяется LatencyBudgetRule.
+// testMillis - время всего теста, calls - перцентиль задержки отдельных эндпоинтов в формате LatencyFilter.endpoint,
+// например @LatencyBudget(calls = @LatencyBudget.Call(endpoint = "POST /api/v1/orders", percentile = 95, millis = 300)).
+// Перцентиль проверяется, только если вызовов эндпоинта не меньше minCalls: по одному-двум вызовам p95 - это
+// просто самый медленный запрос, часто холодный. broken = true помечает тест сломанным вместо упавшего.
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface LatencyBudget {
+    long testMillis() default -1;
+
+    Call[] calls() default {};
+
+    boolean broken() default false;
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({})
+    @interface Call {
+        String endpoint();
+
+        double percentile() default 95;
+
+        // 20 вызовов - хотя бы один за пределами p95
+        int minCalls() default 20;
+
+        long millis();
+    }
+}
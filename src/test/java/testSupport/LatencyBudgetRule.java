@@ -0,0 +1,116 @@
+package testSupport;
+
+import io.qameta.allure.Allure;
+import org.HdrHistogram.Histogram;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.util.Map;
+
+// Проверяет @LatencyBudget теста (или его класса) по гистограммам LatencyFilter.
+// При превышении или если бюджетного эндпоинта не было среди вызовов теста, прикладывает к Allure разбивку
+// по эндпоинтам и роняет тест: AssertionError - упал, LatencyBudgetExceeded - сломан.
+// Лимиты рассчитаны на встроенную заглушку: для удалённого стенда проверка по умолчанию выключена,
+// -Dlatency.budget.scale=K включает её с лимитами, умноженными на K; -Dlatency.budget.scale=0 отключает проверку везде.
+public class LatencyBudgetRule implements TestRule {
+    public static final String SCALE_PROPERTY = "latency.budget.scale";
+
+    @Override
+    public Statement apply(Statement base, Description description) {
+        LatencyBudget budget = description.getAnnotation(LatencyBudget.class);
+        if (budget == null && description.getTestClass() != null) {
+            budget = description.getTestClass().getAnnotation(LatencyBudget.class);
+        }
+        if (budget == null) {
+            return base;
+        }
+        double scale = scale();
+        if (scale <= 0) {
+            return base;
+        }
+        LatencyBudget checked = budget;
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                // Без слушателя Allure сбор гистограмм теста запускаем сами
+                boolean ownCollection = LatencyFilter.currentTest() == null;
+                if (ownCollection) {
+                    LatencyFilter.startTest();
+                }
+                long started = System.nanoTime();
+                try {
+                    base.evaluate();
+                    check(checked, scale, (System.nanoTime() - started) / 1_000_000, LatencyFilter.currentTest());
+                } finally {
+                    if (ownCollection) {
+                        LatencyFilter.finishTest();
+                    }
+                }
+            }
+        };
+    }
+
+    private static double scale() {
+        String scale = System.getProperty(SCALE_PROPERTY);
+        if (scale != null) {
+            return Double.parseDouble(scale);
+        }
+        return Target.isEmbedded() ? 1 : 0;
+    }
+
+    private static void check(LatencyBudget budget, double scale, long testMillis, Map<String, Histogram> histograms) {
+        StringBuilder breakdown = new StringBuilder(String.format("%-34s %6s %9s %9s %s%n",
+                "бюджет", "вызовов", "факт,мс", "лимит,мс", ""));
+        boolean exceeded = false;
+        if (budget.testMillis() >= 0) {
+            double limit = budget.testMillis() * scale;
+            boolean over = testMillis > limit;
+            exceeded |= over;
+            breakdown.append(String.format("%-34s %6s %9d %9.0f %s%n", "тест целиком", "", testMillis, limit, over ? "ПРЕВЫШЕН" : "ok"));
+        }
+        for (LatencyBudget.Call call : budget.calls()) {
+            String name = call.endpoint() + " p" + format(call.percentile());
+            Histogram histogram = histograms == null ? null : histograms.get(call.endpoint());
+            double limit = call.millis() * scale;
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                // Бюджет без вызовов ничего не проверяет: опечатка в эндпоинте или запрос ушёл под другим ключом
+                exceeded = true;
+                breakdown.append(String.format("%-34s %6d %9s %9.0f %s%n", name, 0, "-", limit, "НЕТ ВЫЗОВОВ"));
+                continue;
+            }
+            double actual = histogram.getValueAtPercentile(call.percentile()) / 1000.0;
+            if (histogram.getTotalCount() < call.minCalls()) {
+                breakdown.append(String.format("%-34s %6d %9.2f %9.0f %s%n", name, histogram.getTotalCount(), actual, limit,
+                        "мало вызовов, не проверялся"));
+                continue;
+            }
+            boolean over = actual > limit;
+            exceeded |= over;
+            breakdown.append(String.format("%-34s %6d %9.2f %9.0f %s%n", name, histogram.getTotalCount(), actual, limit,
+                    over ? "ПРЕВЫШЕН" : "ok"));
+        }
+        if (!exceeded) {
+            return;
+        }
+        String text = breakdown.toString();
+        Allure.addAttachment("Бюджет задержек", "text/plain", text, "txt");
+        String message = "Не выполнен бюджет задержек:\n" + text;
+        if (budget.broken()) {
+            throw new LatencyBudgetExceeded(message);
+        }
+        throw new AssertionError(message);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    public static class LatencyBudgetExceeded extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public LatencyBudgetExceeded(String message) {
+            super(message);
+        }
+    }
+}
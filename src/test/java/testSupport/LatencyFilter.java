@@ -0,0 +1,188 @@
+package testSupport;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Задержка каждого запроса в HDR-гистограммы по эндпоинтам вида "GET /api/v1/courier/{id}".
+// Гистограммы всего запуска пишутся в target/latency/<runId>-fork<N>.hlog (-Dlatency.dir), файлы разных форков сливаются.
+public class LatencyFilter implements OrderedFilter {
+    public static final String DIR_PROPERTY = "latency.dir";
+    // Запрос прогрева (WarmUp) несёт холодный старт JVM, в гистограммы эндпоинтов и историю не попадает
+    public static final String WARM_UP_SUFFIX = " (прогрев)";
+    // Запросы через подменённый адрес (FaultProxy) не смешиваются с обычными и в историю не попадают
+    public static final String REROUTED_SUFFIX = " (подмена адреса)";
+    // Вызовы, которые Resilience повторял: в них паузы между попытками, в историю и бюджеты не попадают
+    public static final String RETRIED_SUFFIX = " (с повторами)";
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final LatencyFilter INSTANCE = new LatencyFilter();
+    private static final ConcurrentMap<String, Recorder> RUN = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> RUN_TOTALS = new TreeMap<>();
+    private static final ThreadLocal<Map<String, Histogram>> TEST = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> WARMING_UP = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> RETRIED = new ThreadLocal<>();
+    private static final long RUN_START = System.currentTimeMillis();
+    private static volatile boolean warm;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LatencyFilter::writeRunLog));
+    }
+
+    public static LatencyFilter filter() {
+        return INSTANCE;
+    }
+
+    @Override
+    public int getOrder() {
+        // Внутри IdCache: разбор ответов для кэша в задержку не входит
+        return OrderedFilter.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        boolean cold = !warm;
+        if (cold) {
+            StartupProfile.mark(StartupProfile.FIRST_REQUEST);
+        }
+        RETRIED.remove();
+        long started = System.nanoTime();
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            String endpoint = endpoint(requestSpec.getMethod(), requestSpec.getURI());
+            String suffix = Target.isRerouted() ? REROUTED_SUFFIX : WARMING_UP.get() != null ? WARM_UP_SUFFIX
+                    : RETRIED.get() != null ? RETRIED_SUFFIX : "";
+            RETRIED.remove();
+            record(endpoint + suffix, System.nanoTime() - started);
+            if (cold) {
+                StartupProfile.mark(StartupProfile.FIRST_RESPONSE);
+            }
+            warm = true;
+        }
+    }
+
+    public static String endpoint(String method, String uri) {
+        String path = URI.create(uri).getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+        StringBuilder template = new StringBuilder(method).append(' ');
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            template.append('/').append(segment.chars().allMatch(Character::isDigit) ? "{id}" : segment);
+        }
+        return template.length() == method.length() + 1 ? template.append('/').toString() : template.toString();
+    }
+
+    public static void record(String endpoint, long nanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+        RUN.computeIfAbsent(endpoint, key -> new Recorder(SIGNIFICANT_DIGITS)).recordValue(micros);
+        Map<String, Histogram> test = TEST.get();
+        if (test != null) {
+            test.computeIfAbsent(endpoint, key -> new Histogram(SIGNIFICANT_DIGITS)).recordValue(micros);
+        }
+    }
+
+    // Запросы потока между warmingUp(true) и warmingUp(false) пишутся под WARM_UP_SUFFIX
+    public static void warmingUp(boolean on) {
+        if (on) {
+            WARMING_UP.set(Boolean.TRUE);
+        } else {
+            WARMING_UP.remove();
+        }
+    }
+
+    // Текущий запрос потока повторяется (вызывает Resilience)
+    static void retried() {
+        RETRIED.set(Boolean.TRUE);
+    }
+
+    public static void startTest() {
+        TEST.set(new LinkedHashMap<>());
+    }
+
+    // Гистограммы текущего теста без остановки сбора; null, если сбор для потока не начат
+    public static Map<String, Histogram> currentTest() {
+        return TEST.get();
+    }
+
+    // Гистограммы запросов текущего теста (только из потока теста); после вызова сбор прекращается
+    public static Map<String, Histogram> finishTest() {
+        Map<String, Histogram> test = TEST.get();
+        TEST.remove();
+        return test == null ? new LinkedHashMap<>() : test;
+    }
+
+    public static synchronized Map<String, Histogram> runSnapshot() {
+        for (Map.Entry<String, Recorder> entry : RUN.entrySet()) {
+            RUN_TOTALS.computeIfAbsent(entry.getKey(), key -> new Histogram(SIGNIFICANT_DIGITS))
+                    .add(entry.getValue().getIntervalHistogram());
+        }
+        Map<String, Histogram> copy = new TreeMap<>();
+        for (Map.Entry<String, Histogram> entry : RUN_TOTALS.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copy;
+    }
+
+    public static String summary(Map<String, Histogram> histograms) {
+        StringBuilder summary = new StringBuilder(String.format("%-34s %6s %9s %9s %9s %9s%n",
+                "эндпоинт", "вызовов", "p50,мс", "p95,мс", "p99,мс", "max,мс"));
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            summary.append(String.format("%-34s %6d %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(95) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0));
+        }
+        return summary.toString();
+    }
+
+    private static void writeRunLog() {
+        Map<String, Histogram> histograms = runSnapshot();
+        if (histograms.isEmpty()) {
+            return;
+        }
+        PerfHistory.append(histograms, RUN_START, System.currentTimeMillis());
+        File dir = new File(System.getProperty(DIR_PROPERTY, "target/latency"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        File file = new File(dir, UniqueIds.runId() + "-fork" + UniqueIds.fork() + ".hlog");
+        try {
+            HistogramLogWriter writer = new HistogramLogWriter(file);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(RUN_START);
+            writer.outputLegend();
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                Histogram histogram = entry.getValue();
+                histogram.setTag(entry.getKey().replace(' ', '_'));
+                histogram.setStartTimeStamp(RUN_START);
+                histogram.setEndTimeStamp(System.currentTimeMillis());
+                writer.outputIntervalHistogram(histogram);
+            }
+            writer.close();
+        } catch (FileNotFoundException e) {
+            System.err.println("Не удалось записать гистограммы задержек: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package testSupport;
+
+import com.google.gson.Gson;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+// История задержек между запусками: по строке JSON на форк в .perf/history.jsonl (-Dperf.history).
+// Строка - id запуска, форк, адрес API, вид нагрузки, длительность и по каждому эндпоинту число вызовов,
+// p50/p90/p95/p99/max в мс и сжатая гистограмма для точного слияния форков; запросов/с - только для нагрузки.
+// Вид нагрузки (-Dperf.workload): suite - весь набор тестов, partial - часть набора (-Dtest, шард),
+// load - нагрузочные раннеры. Файл только дописывается.
+public class PerfHistory {
+    public static final String FILE_PROPERTY = "perf.history";
+    public static final String WORKLOAD_PROPERTY = "perf.workload";
+    public static final String SUITE = "suite";
+    public static final String PARTIAL = "partial";
+    public static final String LOAD = "load";
+    private static final Gson GSON = new Gson();
+
+    public static File file() {
+        return new File(System.getProperty(FILE_PROPERTY, ".perf/history.jsonl"));
+    }
+
+    // Раннеры нагрузки выставляют load сами; прогон с -Dtest или шард - часть набора
+    public static String workload() {
+        String workload = System.getProperty(WORKLOAD_PROPERTY);
+        if (workload != null && !workload.trim().isEmpty()) {
+            return workload.trim();
+        }
+        String test = System.getProperty("test");
+        boolean partial = (test != null && !test.trim().isEmpty()) || System.getProperty("shard.index") != null;
+        return partial ? PARTIAL : SUITE;
+    }
+
+    // Вызывается из хука завершения LatencyFilter; прогрев, подменённый адрес, вызовы с повторами
+    // и воспроизведение кассеты в историю не попадают
+    static void append(Map<String, Histogram> histograms, long runStart, long runEnd) {
+        if (Cassette.REPLAY.equals(Cassette.mode())) {
+            return;
+        }
+        double seconds = Math.max(0.001, (runEnd - runStart) / 1000.0);
+        Entry entry = new Entry();
+        entry.runId = UniqueIds.runId();
+        entry.fork = UniqueIds.fork();
+        entry.target = Target.label();
+        entry.workload = workload();
+        entry.time = runEnd;
+        entry.seconds = seconds;
+        for (Map.Entry<String, Histogram> histogram : histograms.entrySet()) {
+            String endpoint = histogram.getKey();
+            if (!endpoint.endsWith(LatencyFilter.WARM_UP_SUFFIX) && !endpoint.endsWith(LatencyFilter.REROUTED_SUFFIX)
+                    && !endpoint.endsWith(LatencyFilter.RETRIED_SUFFIX)
+                    && histogram.getValue().getTotalCount() > 0) {
+                // У набора тестов запросов/с зависит от состава тестов, а не от сервиса
+                entry.endpoints.put(histogram.getKey(), Summary.of(histogram.getValue(),
+                        LOAD.equals(entry.workload) ? seconds : 0));
+            }
+        }
+        if (entry.endpoints.isEmpty()) {
+            return;
+        }
+        File file = file();
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        byte[] line = (GSON.toJson(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        // Форки пишут одновременно: строка дописывается целиком под блокировкой файла
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             FileLock ignored = channel.lock()) {
+            channel.write(ByteBuffer.wrap(line));
+        } catch (IOException e) {
+            System.err.println("Не удалось дописать историю задержек: " + e.getMessage());
+        }
+    }
+
+    public static List<Entry> read(File file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!file.isFile()) {
+            return entries;
+        }
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty()) {
+                entries.add(GSON.fromJson(line, Entry.class));
+            }
+        }
+        return entries;
+    }
+
+    public static class Entry {
+        String runId;
+        int fork;
+        String target;
+        String workload;
+        long time;
+        double seconds;
+        Map<String, Summary> endpoints = new LinkedHashMap<>();
+    }
+
+    public static class Summary {
+        long count;
+        Double rps;
+        double p50;
+        double p90;
+        double p95;
+        double p99;
+        double max;
+        String histogram;
+
+        // seconds = 0 - без запросов/с
+        static Summary of(Histogram histogram, double seconds) {
+            Summary summary = new Summary();
+            summary.count = histogram.getTotalCount();
+            summary.rps = seconds > 0 ? histogram.getTotalCount() / seconds : null;
+            summary.p50 = histogram.getValueAtPercentile(50) / 1000.0;
+            summary.p90 = histogram.getValueAtPercentile(90) / 1000.0;
+            summary.p95 = histogram.getValueAtPercentile(95) / 1000.0;
+            summary.p99 = histogram.getValueAtPercentile(99) / 1000.0;
+            summary.max = histogram.getMaxValue() / 1000.0;
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            byte[] bytes = new byte[length];
+            buffer.flip();
+            buffer.get(bytes);
+            summary.histogram = Base64.getEncoder().encodeToString(bytes);
+            return summary;
+        }
+
+        Histogram histogram() {
+            try {
+                return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(histogram)), 0);
+            } catch (DataFormatException e) {
+                throw new RuntimeException("Ошибка чтения гистограммы из истории: " + e.getMessage());
+            }
+        }
+    }
+}
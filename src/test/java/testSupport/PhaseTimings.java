@@ -0,0 +1,382 @@
+package testSupport;
+
+import com.google.gson.Gson;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Разбивка каждого HTTP-обмена по фазам: DNS, TCP-соединение, TLS, отправка запроса, ожидание ответа
+// (до разобранных заголовков, TTFB) и загрузка тела. Фазы меряет ConnectionPool в потоке запроса, а фильтр
+// открывает вызов: ставит заголовок X-Correlation-Id (если его не задали явно) и связывает с ним обмены потока.
+// Повторы Resilience уходят с тем же id и следующим номером попытки.
+// REST-assured читает тело лениво, поэтому обмен завершается, когда тело дочитано или закрыто.
+// Итог обмена - вложение "Фазы запроса" в текущий шаг Allure (вне шага только в файл) и строка JSON
+// в target/phases/<runId>-fork<N>.jsonl (-Dphases.dir). Выключается -Dphases=false; раннеры нагрузки
+// выключают фазы сами, если свойство не задано.
+public class PhaseTimings implements OrderedFilter {
+    public static final String ENABLED_PROPERTY = "phases";
+    public static final String DIR_PROPERTY = "phases.dir";
+    public static final String HEADER = "X-Correlation-Id";
+
+    private static final Gson GSON = new Gson();
+    private static final PhaseTimings INSTANCE = new PhaseTimings();
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    // Обмены с недочитанным телом; при остановке JVM пишутся как есть
+    private static final Set<Exchange> PENDING = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Record> LAST = new ThreadLocal<>();
+    private static Writer writer;
+    private static boolean writerFailed;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PhaseTimings::flush));
+    }
+
+    public static PhaseTimings filter() {
+        return INSTANCE;
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    @Override
+    public int getOrder() {
+        // Снаружи Cassette и Resilience: повторы попадают в тот же вызов
+        return OrderedFilter.HIGHEST_PRECEDENCE + 3;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        String id = requestSpec.getHeaders().getValue(HEADER);
+        if (id == null) {
+            id = UniqueIds.runId() + "-f" + UniqueIds.fork() + "-" + SEQUENCE.incrementAndGet();
+            requestSpec.header(HEADER, id);
+        }
+        Call outer = CURRENT.get();
+        CURRENT.set(new Call(id, LatencyFilter.endpoint(requestSpec.getMethod(), requestSpec.getURI()), Target.isRerouted()));
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    // Последний завершённый в этом потоке обмен строкой JSON, как в файле фаз; null, если обменов не было
+    public static String lastRecord() {
+        Record record = LAST.get();
+        return record == null ? null : GSON.toJson(record);
+    }
+
+    // Хуки ConnectionPool: вне вызова (фильтр выключен или запрос не через Specific) ничего не делают
+
+    static void dns(long started, long finished) {
+        Exchange exchange = exchange(started);
+        if (exchange != null) {
+            exchange.dns += finished - started;
+        }
+    }
+
+    static void connect(long started, long finished) {
+        Exchange exchange = exchange(started);
+        if (exchange != null) {
+            exchange.connect += finished - started;
+            exchange.reused = false;
+        }
+    }
+
+    static void tls(long started, long finished) {
+        Exchange exchange = exchange(started);
+        if (exchange != null) {
+            exchange.tls += finished - started;
+        }
+    }
+
+    static void sent(long started, long finished) {
+        Exchange exchange = exchange(started);
+        if (exchange != null) {
+            exchange.send += finished - started;
+            exchange.sent = finished;
+        }
+    }
+
+    // Заголовки ответа разобраны: тело оборачивается, чтобы поймать конец загрузки
+    static void received(HttpResponse response, long finished) {
+        Call call = CURRENT.get();
+        Exchange exchange = call == null ? null : call.open;
+        if (exchange == null) {
+            return;
+        }
+        call.open = null;
+        exchange.status = response.getStatusLine().getStatusCode();
+        exchange.headers = finished;
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            exchange.finish(finished, null);
+        } else {
+            PENDING.add(exchange);
+            response.setEntity(new TimedEntity(entity, exchange));
+        }
+    }
+
+    static void failed(IOException error) {
+        Call call = CURRENT.get();
+        Exchange exchange = call == null ? null : call.open;
+        if (exchange != null) {
+            call.open = null;
+            exchange.finish(System.nanoTime(), error.toString());
+        }
+    }
+
+    private static Exchange exchange(long started) {
+        Call call = CURRENT.get();
+        if (call == null) {
+            return null;
+        }
+        if (call.open == null) {
+            call.open = new Exchange(call, ++call.attempts, started);
+        }
+        return call.open;
+    }
+
+    private static synchronized void write(Record record) {
+        if (writerFailed) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                File dir = new File(System.getProperty(DIR_PROPERTY, "target/phases"));
+                if (!dir.isDirectory() && !dir.mkdirs()) {
+                    throw new IOException("не удалось создать каталог " + dir);
+                }
+                File file = new File(dir, UniqueIds.runId() + "-fork" + UniqueIds.fork() + ".jsonl");
+                writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8));
+            }
+            writer.write(GSON.toJson(record));
+            writer.write('\n');
+        } catch (IOException e) {
+            writerFailed = true;
+            System.err.println("Не удалось записать фазы запросов: " + e.getMessage());
+        }
+    }
+
+    private static void flush() {
+        for (Exchange exchange : new ArrayList<>(PENDING)) {
+            exchange.finish(-1, "тело ответа не дочитано");
+        }
+        synchronized (PhaseTimings.class) {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    System.err.println("Не удалось записать фазы запросов: " + e.getMessage());
+                }
+                writer = null;
+            }
+        }
+    }
+
+    // Вложение только в шаг: запросы вне шагов (потоки нагрузки, гонки) дали бы сотни вложений в тест
+    private static void attach(Record record) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        Optional<String> current = lifecycle.getCurrentTestCaseOrStep();
+        if (!current.isPresent() || current.equals(lifecycle.getCurrentTestCase())) {
+            return;
+        }
+        lifecycle.addAttachment("Фазы запроса: " + record.endpoint, "text/plain", "txt", record.text().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class Call {
+        private final String id;
+        private final String endpoint;
+        private final boolean rerouted;
+        private int attempts;
+        private Exchange open;
+
+        private Call(String id, String endpoint, boolean rerouted) {
+            this.id = id;
+            this.endpoint = endpoint;
+            this.rerouted = rerouted;
+        }
+    }
+
+    // Один обмен запрос-ответ; время в наносекундах System.nanoTime()
+    private static class Exchange {
+        private final Call call;
+        private final int attempt;
+        private final long started;
+        private final long startedAt = System.currentTimeMillis();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private long dns;
+        private long connect;
+        private long tls;
+        private long send;
+        private long sent;
+        private long headers;
+        private long bytes;
+        private int status;
+        private boolean reused = true;
+
+        private Exchange(Call call, int attempt, long started) {
+            this.call = call;
+            this.attempt = attempt;
+            this.started = started;
+        }
+
+        private void finish(long at, String error) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            PENDING.remove(this);
+            Record record = new Record();
+            record.time = startedAt;
+            record.correlationId = call.id;
+            record.attempt = attempt;
+            record.endpoint = call.endpoint;
+            record.rerouted = call.rerouted ? Boolean.TRUE : null;
+            record.status = status == 0 ? null : status;
+            record.error = error;
+            record.reused = reused;
+            record.dnsMs = reused ? null : millis(dns);
+            record.connectMs = reused ? null : millis(connect);
+            record.tlsMs = tls == 0 ? null : millis(tls);
+            record.sendMs = sent == 0 ? null : millis(send);
+            record.ttfbMs = headers == 0 ? null : millis(headers - sent);
+            record.downloadMs = headers == 0 || at < 0 ? null : millis(at - headers);
+            record.totalMs = at < 0 ? null : millis(at - started);
+            record.bytes = headers == 0 ? null : bytes;
+            LAST.set(record);
+            write(record);
+            attach(record);
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1000.0) / 1000.0;
+        }
+    }
+
+    // Строка файла фаз; null-поля (фаза не наступила) Gson не пишет
+    private static class Record {
+        private long time;
+        private String correlationId;
+        private int attempt;
+        private String endpoint;
+        private Boolean rerouted;
+        private Integer status;
+        private String error;
+        private boolean reused;
+        private Double dnsMs;
+        private Double connectMs;
+        private Double tlsMs;
+        private Double sendMs;
+        private Double ttfbMs;
+        private Double downloadMs;
+        private Double totalMs;
+        private Long bytes;
+
+        private String text() {
+            return String.format("%s: %s%nпопытка %d, %s, соединение %s%n"
+                            + "%-18s %s%n%-18s %s%n%-18s %s%n%-18s %s%n%-18s %s%n%-18s %s%s%n%-18s %s%n",
+                    HEADER, correlationId, attempt, error != null ? error : "код ответа " + status,
+                    reused ? "из пула" : "новое",
+                    "DNS", ms(dnsMs), "соединение", ms(connectMs), "TLS", ms(tlsMs), "отправка", ms(sendMs),
+                    "ожидание ответа", ms(ttfbMs), "загрузка тела", ms(downloadMs), bytes == null ? "" : " (" + bytes + " байт)",
+                    "всего", ms(totalMs));
+        }
+
+        private static String ms(Double value) {
+            return value == null ? "-" : String.format("%.3f мс", value);
+        }
+    }
+
+    // Тело ответа, которое отмечает конец загрузки на последнем байте или при закрытии
+    private static class TimedEntity extends HttpEntityWrapper {
+        private final Exchange exchange;
+        private InputStream content;
+
+        private TimedEntity(HttpEntity entity, Exchange exchange) {
+            super(entity);
+            this.exchange = exchange;
+        }
+
+        @Override
+        public synchronized InputStream getContent() throws IOException {
+            if (content == null) {
+                content = new FilterInputStream(super.getContent()) {
+                    @Override
+                    public int read() throws IOException {
+                        int read = super.read();
+                        count(read < 0 ? -1 : 1);
+                        return read;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int read = super.read(buffer, offset, length);
+                        count(read);
+                        return read;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            exchange.finish(System.nanoTime(), null);
+                        }
+                    }
+                };
+            }
+            return content;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream in = getContent()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        }
+
+        private void count(int read) {
+            if (read < 0) {
+                exchange.finish(System.nanoTime(), null);
+            } else {
+                exchange.bytes += read;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package testSupport;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Сравнивает последний запуск из PerfHistory со скользящей базой из предыдущих запусков против того же адреса API
+// и того же вида нагрузки (-Dperf.workload, по умолчанию suite - полный набор тестов).
+// По каждому эндпоинту и перцентилю (p50, p95, p99): база - медиана запусков, шум - MAD.
+// Регрессия, если рост больше всех трёх порогов: perf.mad * 1.4826 * MAD, perf.floorMs мс и perf.relative от базы.
+// Перцентиль сравнивается, только если за его пределами в каждом запуске хотя бы perf.tailSamples вызовов
+// (для p50 - 10 вызовов, для p95 - 100, для p99 - 500) и база набрана хотя бы из perf.minRuns запусков.
+// Запуск после тестов: mvn -Pperf-check verify, отдельно: mvn -Pperf-check test-compile exec:java
+public class RegressionCheck {
+    private static final String[] METRICS = {"p50", "p95", "p99"};
+    private static final double[] PERCENTILES = {50, 95, 99};
+
+    public static void main(String[] args) throws IOException {
+        File file = PerfHistory.file();
+        String target = Target.label();
+        String workload = System.getProperty(PerfHistory.WORKLOAD_PROPERTY, PerfHistory.SUITE);
+        int baselineRuns = Integer.getInteger("perf.baseline", 10);
+        int minRuns = Integer.getInteger("perf.minRuns", 5);
+        double tailSamples = Double.parseDouble(System.getProperty("perf.tailSamples", "5"));
+        double madFactor = Double.parseDouble(System.getProperty("perf.mad", "3"));
+        double floorMs = Double.parseDouble(System.getProperty("perf.floorMs", "5"));
+        double relative = Double.parseDouble(System.getProperty("perf.relative", "0.3"));
+
+        List<Run> runs = runs(PerfHistory.read(file), target, workload);
+        if (runs.isEmpty()) {
+            System.out.println("История задержек " + file + " для " + target + " (" + workload + ") пуста, сравнивать не с чем");
+            return;
+        }
+        Run current = runs.get(runs.size() - 1);
+        String only = System.getProperty("perf.run");
+        if (only != null) {
+            current = null;
+            for (Run run : runs) {
+                if (run.runId.equals(only)) {
+                    current = run;
+                }
+            }
+            if (current == null) {
+                throw new IllegalArgumentException("Запуск " + only + " не найден в " + file);
+            }
+        }
+        List<Run> baseline = new ArrayList<>(runs.subList(Math.max(0, runs.indexOf(current) - baselineRuns), runs.indexOf(current)));
+        System.out.println("Запуск " + current.runId + " против " + baseline.size() + " предыдущих (" + target + ", " + workload + ")");
+        System.out.println(String.format("%-34s %-4s %6s %9s %9s %9s %9s %s",
+                "эндпоинт", "", "вызовов", "база,мс", "сейчас,мс", "рост,мс", "порог,мс", ""));
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Histogram> entry : current.endpoints.entrySet()) {
+            String endpoint = entry.getKey();
+            Histogram histogram = entry.getValue();
+            for (int m = 0; m < METRICS.length; m++) {
+                long minCount = (long) Math.ceil(tailSamples / (1 - PERCENTILES[m] / 100));
+                List<Double> values = new ArrayList<>();
+                for (Run run : baseline) {
+                    Histogram past = run.endpoints.get(endpoint);
+                    if (past != null && past.getTotalCount() >= minCount) {
+                        values.add(past.getValueAtPercentile(PERCENTILES[m]) / 1000.0);
+                    }
+                }
+                double now = histogram.getValueAtPercentile(PERCENTILES[m]) / 1000.0;
+                if (histogram.getTotalCount() < minCount || values.size() < minRuns) {
+                    System.out.println(String.format("%-34s %-4s %6d %9s %9.2f %9s %9s %s", endpoint, METRICS[m],
+                            histogram.getTotalCount(), "-", now, "-", "-", "мало данных"));
+                    continue;
+                }
+                double median = median(values);
+                List<Double> deviations = new ArrayList<>();
+                for (double value : values) {
+                    deviations.add(Math.abs(value - median));
+                }
+                double threshold = Math.max(madFactor * 1.4826 * median(deviations), Math.max(floorMs, relative * median));
+                double delta = now - median;
+                boolean regressed = delta > threshold;
+                if (regressed) {
+                    regressions.add(endpoint + " " + METRICS[m]);
+                }
+                System.out.println(String.format("%-34s %-4s %6d %9.2f %9.2f %+9.2f %9.2f %s", endpoint, METRICS[m],
+                        histogram.getTotalCount(), median, now, delta, threshold, regressed ? "РЕГРЕССИЯ" : "ok"));
+            }
+        }
+        if (!regressions.isEmpty() && Boolean.parseBoolean(System.getProperty("perf.fail", "true"))) {
+            throw new IllegalStateException("Регрессия задержек: " + regressions);
+        }
+    }
+
+    // Строки форков одного запуска сливаются в одну гистограмму на эндпоинт.
+    // Строки без вида нагрузки (записанные до его появления) смешивают нагрузки и пропускаются
+    static List<Run> runs(List<PerfHistory.Entry> entries, String target, String workload) {
+        Map<String, Run> runs = new LinkedHashMap<>();
+        for (PerfHistory.Entry entry : entries) {
+            if (!target.equals(entry.target) || !workload.equals(entry.workload)) {
+                continue;
+            }
+            Run run = runs.computeIfAbsent(entry.runId, Run::new);
+            for (Map.Entry<String, PerfHistory.Summary> summary : entry.endpoints.entrySet()) {
+                Histogram histogram = summary.getValue().histogram();
+                Histogram merged = run.endpoints.get(summary.getKey());
+                if (merged == null) {
+                    run.endpoints.put(summary.getKey(), histogram);
+                } else {
+                    merged.add(histogram);
+                }
+            }
+        }
+        return new ArrayList<>(runs.values());
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    static class Run {
+        final String runId;
+        final Map<String, Histogram> endpoints = new LinkedHashMap<>();
+
+        Run(String runId) {
+            this.runId = runId;
+        }
+    }
+}
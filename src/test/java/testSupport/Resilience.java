@@ -0,0 +1,267 @@
+package testSupport;
+
+import io.restassured.RestAssured;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSender;
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Таймауты, повторы и предохранитель для всех запросов через Specific.requestSpec(). Фильтр стоит последним в цепочке,
+// поэтому повтор (ctx.send без фильтров) ничего не пропускает.
+//  - таймаут чтения на эндпоинт: p99 успешных попыток * resilience.timeout.factor (5) в пределах
+//    resilience.timeout.minMs..maxMs (2000..30000); пока попыток меньше resilience.timeout.samples (20) - initialMs (10000).
+//    Таймаут соединения - resilience.connectMs (3000);
+//  - повторы только для идемпотентных вызовов (GET трека, DELETE курьера, PUT завершения заказа) при ошибке ввода-вывода
+//    или 502/503/504: не больше resilience.retry.attempts (3) попыток, пауза со случайной долей от resilience.retry.backoffMs (100) * 2^n.
+//    Общий бюджет повторов на запуск: resilience.retry.budget (20) жетонов, каждый обычный вызов добавляет resilience.retry.ratio (0.1);
+//  - предохранитель на адрес: после resilience.breaker.failures (5) неудачных вызовов подряд (вызов с повторами - одна неудача)
+//    адрес на resilience.breaker.openMs (30000) считается недоступным, запросы к нему сразу падают с CircuitOpenException.
+//    Потом пропускается один пробный запрос: успех закрывает предохранитель, неудача открывает его снова.
+// Вызовы с повторами пишутся в LatencyFilter отдельно (RETRIED_SUFFIX): паузы между попытками не портят задержку эндпоинта.
+// Выключается -Dresilience.enabled=false. Настройки читаются один раз при загрузке класса.
+public class Resilience implements OrderedFilter {
+    public static final String ENABLED_PROPERTY = "resilience.enabled";
+
+    private static final Set<String> IDEMPOTENT = new HashSet<>(Arrays.asList(
+            "GET /api/v1/orders/track", "DELETE /api/v1/courier/{id}", "PUT /api/v1/orders/finish"));
+    private static final Set<Integer> UNAVAILABLE = new HashSet<>(Arrays.asList(502, 503, 504));
+
+    private static final double TIMEOUT_FACTOR = doubleProperty("resilience.timeout.factor", 5);
+    private static final int TIMEOUT_MIN_MS = Integer.getInteger("resilience.timeout.minMs", 2000);
+    private static final int TIMEOUT_MAX_MS = Integer.getInteger("resilience.timeout.maxMs", 30000);
+    private static final int TIMEOUT_INITIAL_MS = Integer.getInteger("resilience.timeout.initialMs", 10000);
+    private static final int TIMEOUT_SAMPLES = Integer.getInteger("resilience.timeout.samples", 20);
+    private static final int CONNECT_MS = Integer.getInteger("resilience.connectMs", 3000);
+    private static final int MAX_ATTEMPTS = Math.max(1, Integer.getInteger("resilience.retry.attempts", 3));
+    private static final long BACKOFF_MS = Long.getLong("resilience.retry.backoffMs", 100);
+    private static final double RETRY_BUDGET = doubleProperty("resilience.retry.budget", 20);
+    private static final double RETRY_RATIO = doubleProperty("resilience.retry.ratio", 0.1);
+    private static final int BREAKER_FAILURES = Math.max(1, Integer.getInteger("resilience.breaker.failures", 5));
+    private static final long BREAKER_OPEN_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("resilience.breaker.openMs", 30000));
+
+    private static final Resilience INSTANCE = new Resilience();
+
+    private final ConcurrentMap<String, Timeout> timeouts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Breaker> breakers = new ConcurrentHashMap<>();
+    // Бюджет в тысячных долях жетона
+    private final AtomicLong budget = new AtomicLong((long) (RETRY_BUDGET * 1000));
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong retriesDenied = new AtomicLong();
+
+    public static Resilience filter() {
+        return INSTANCE;
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    @Override
+    public int getOrder() {
+        return OrderedFilter.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        String endpoint = LatencyFilter.endpoint(requestSpec.getMethod(), requestSpec.getURI());
+        Breaker breaker = breakers.computeIfAbsent(authority(requestSpec.getURI()), Breaker::new);
+        breaker.check();
+        boolean idempotent = IDEMPOTENT.contains(endpoint);
+        Timeout timeout = timeouts.computeIfAbsent(endpoint, key -> new Timeout());
+        deposit();
+        for (int attempt = 1; ; attempt++) {
+            Response response;
+            long started = System.nanoTime();
+            ConnectionPool.requestTimeouts(CONNECT_MS, timeout.millis());
+            try {
+                response = attempt == 1 ? ctx.next(requestSpec, responseSpec) : ctx.send(resend(requestSpec));
+            } catch (Exception e) {
+                if (!(e instanceof IOException)) {
+                    throw e;
+                }
+                if (!idempotent || !retry(endpoint, attempt, e.toString())) {
+                    breaker.failure();
+                    throw e;
+                }
+                continue;
+            } finally {
+                ConnectionPool.clearRequestTimeouts();
+            }
+            if (!UNAVAILABLE.contains(response.getStatusCode())) {
+                breaker.success();
+                timeout.record(System.nanoTime() - started);
+                return response;
+            }
+            if (!idempotent || !retry(endpoint, attempt, "код ответа " + response.getStatusCode())) {
+                breaker.failure();
+                return response;
+            }
+            // Тело неудачного ответа дочитывается, чтобы соединение вернулось в пул
+            response.asByteArray();
+        }
+    }
+
+    // Повтор - тот же запрос без фильтров: цепочка фильтров REST-assured проходится только один раз.
+    // Параметры запроса уже входят в адрес, который подставляет ctx.send, поэтому из копии они убираются
+    private static RequestSender resend(FilterableRequestSpecification requestSpec) {
+        FilterableRequestSpecification copy = (FilterableRequestSpecification) RestAssured.given().spec(requestSpec).noFilters();
+        for (String name : new ArrayList<>(copy.getQueryParams().keySet())) {
+            copy.removeQueryParam(name);
+        }
+        return copy;
+    }
+
+    // Текущий таймаут чтения для эндпоинта вида "GET /api/v1/orders/track"
+    public static int timeoutMillis(String endpoint) {
+        Timeout timeout = INSTANCE.timeouts.get(endpoint);
+        return timeout == null ? TIMEOUT_INITIAL_MS : timeout.millis();
+    }
+
+    public static boolean isOpen(String baseUri) {
+        Breaker breaker = INSTANCE.breakers.get(authority(baseUri));
+        return breaker != null && breaker.open;
+    }
+
+    // Число повторов, выполненных фильтром с начала запуска
+    public static long retries() {
+        return INSTANCE.retries.get();
+    }
+
+    public static String summary() {
+        StringBuilder summary = new StringBuilder("Повторов: " + INSTANCE.retries.get()
+                + ", отказано бюджетом: " + INSTANCE.retriesDenied.get());
+        for (Breaker breaker : INSTANCE.breakers.values()) {
+            if (breaker.open) {
+                summary.append(", недоступен: ").append(breaker.authority);
+            }
+        }
+        return summary.toString();
+    }
+
+    private void deposit() {
+        long cap = (long) (RETRY_BUDGET * 1000);
+        long add = (long) (RETRY_RATIO * 1000);
+        budget.getAndUpdate(current -> Math.min(cap, current + add));
+    }
+
+    private boolean retry(String endpoint, int attempt, String reason) {
+        if (attempt >= MAX_ATTEMPTS) {
+            return false;
+        }
+        long left = budget.getAndUpdate(current -> current >= 1000 ? current - 1000 : current);
+        if (left < 1000) {
+            retriesDenied.incrementAndGet();
+            Diagnostics.warn(() -> endpoint + ": бюджет повторов исчерпан (" + reason + ")");
+            return false;
+        }
+        retries.incrementAndGet();
+        LatencyFilter.retried();
+        long pause = ThreadLocalRandom.current().nextLong(BACKOFF_MS * (1L << (attempt - 1)) + 1);
+        Diagnostics.warn(() -> endpoint + ": попытка " + (attempt + 1) + " через " + pause + " мс (" + reason + ")");
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    private static String authority(String uri) {
+        URI parsed = URI.create(uri);
+        return parsed.getScheme() + "://" + parsed.getRawAuthority();
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    public static class CircuitOpenException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CircuitOpenException(String authority, int failures) {
+            super("Адрес " + authority + " недоступен: " + failures + " неудачных запросов подряд, запрос не отправлен");
+        }
+    }
+
+    private static class Timeout {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(3);
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile int millis = TIMEOUT_INITIAL_MS;
+
+        int millis() {
+            return millis;
+        }
+
+        // Перцентиль пересчитывается раз в 16 попыток, между ними таймаут берётся готовым
+        void record(long nanos) {
+            histogram.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            int seen = count.incrementAndGet();
+            if (seen >= TIMEOUT_SAMPLES && (seen == TIMEOUT_SAMPLES || seen % 16 == 0)) {
+                double p99 = histogram.getValueAtPercentile(99) / 1000.0;
+                millis = (int) Math.max(TIMEOUT_MIN_MS, Math.min(TIMEOUT_MAX_MS, p99 * TIMEOUT_FACTOR));
+            }
+        }
+    }
+
+    private static class Breaker {
+        private final String authority;
+        private final AtomicInteger consecutive = new AtomicInteger();
+        // До этого момента (System.nanoTime) запросы не пропускаются; первый запрос после него - пробный
+        private final AtomicLong closedAt = new AtomicLong();
+        private volatile boolean open;
+
+        Breaker(String authority) {
+            this.authority = authority;
+        }
+
+        void check() {
+            if (!open) {
+                return;
+            }
+            long until = closedAt.get();
+            long now = System.nanoTime();
+            // Пробный запрос пропускается один, остальные ждут его результата
+            if (now - until < 0 || !closedAt.compareAndSet(until, now + BREAKER_OPEN_NANOS)) {
+                throw new CircuitOpenException(authority, BREAKER_FAILURES);
+            }
+        }
+
+        void success() {
+            consecutive.set(0);
+            if (open) {
+                open = false;
+                Diagnostics.warn(() -> "Адрес " + authority + " снова доступен");
+            }
+        }
+
+        void failure() {
+            if (consecutive.incrementAndGet() < BREAKER_FAILURES) {
+                return;
+            }
+            closedAt.set(System.nanoTime() + BREAKER_OPEN_NANOS);
+            if (!open) {
+                open = true;
+                Diagnostics.warn(() -> "Адрес " + authority + " недоступен после " + BREAKER_FAILURES
+                        + " неудач подряд, запросы к нему не отправляются " + TimeUnit.NANOSECONDS.toMillis(BREAKER_OPEN_NANOS) + " мс");
+            }
+        }
+    }
+}
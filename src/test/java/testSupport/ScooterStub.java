@@ -0,0 +1,366 @@
+package testSupport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Встроенная заглушка API самоката: курьеры и заказы хранятся в памяти JVM.
+public class ScooterStub {
+    private static final String COURIER = "/api/v1/courier";
+    private static final String COURIER_LOGIN = "/api/v1/courier/login";
+    private static final String ORDERS = "/api/v1/orders";
+    private static final String ORDER_TRACK = "/api/v1/orders/track";
+    private static final String ORDER_FINISH = "/api/v1/orders/finish";
+    private static final int DEFAULT_LIMIT = 30;
+
+    private static ScooterStub shared;
+
+    private final Gson gson = new Gson();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicInteger courierIds = new AtomicInteger(100000);
+    private final AtomicInteger orderIds = new AtomicInteger(500000);
+    private final AtomicInteger tracks = new AtomicInteger(700000);
+    private final ConcurrentMap<String, Courier> couriersByLogin = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Courier> couriersById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, JsonObject> ordersById = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, Integer> orderIdsByTrack = new ConcurrentHashMap<>();
+
+    public ScooterStub(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при запуске заглушки API: " + e.getMessage(), e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "scooter-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/v1/", this::handle);
+        seedOrders();
+    }
+
+    public static synchronized ScooterStub shared() {
+        if (shared == null) {
+            shared = new ScooterStub(0).start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop));
+        }
+        return shared;
+    }
+
+    // Для запусков вне surefire: поток диспетчера HttpServer не daemon и держит JVM
+    public static synchronized void stopShared() {
+        if (shared != null) {
+            shared.stop();
+            shared = null;
+        }
+    }
+
+    public ScooterStub start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String baseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    // В пустой базе список заказов не должен быть пустым, как и на реальном стенде
+    private void seedOrders() {
+        for (int i = 0; i < 3; i++) {
+            JsonObject order = new JsonObject();
+            order.addProperty("firstName", "Тест");
+            order.addProperty("lastName", "Тестов");
+            order.addProperty("address", "Москва, " + (i + 1));
+            order.addProperty("metroStation", "4");
+            order.addProperty("phone", "+7 800 355 35 3" + i);
+            order.addProperty("rentTime", 1);
+            order.addProperty("deliveryDate", "2024-11-01");
+            order.addProperty("comment", "");
+            order.add("color", new JsonArray());
+            createOrder(order);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            Reply reply;
+            if ("POST".equals(method) && COURIER.equals(path)) {
+                reply = createCourier(readBody(exchange));
+            } else if ("POST".equals(method) && COURIER_LOGIN.equals(path)) {
+                reply = loginCourier(readBody(exchange));
+            } else if ("DELETE".equals(method) && path.startsWith(COURIER)) {
+                reply = deleteCourier(path.substring(COURIER.length()));
+            } else if ("POST".equals(method) && ORDERS.equals(path)) {
+                reply = createOrderReply(readBody(exchange));
+            } else if ("GET".equals(method) && ORDERS.equals(path)) {
+                reply = listOrders(query);
+            } else if ("GET".equals(method) && ORDER_TRACK.equals(path)) {
+                reply = orderByTrack(query.containsKey("t") ? query.get("t") : query.get("track"));
+            } else if ("PUT".equals(method) && path.startsWith(ORDER_FINISH)) {
+                String id = path.length() > ORDER_FINISH.length() ? path.substring(ORDER_FINISH.length() + 1) : query.get("id");
+                reply = finishOrder(id);
+            } else {
+                reply = error(404, "Not Found.");
+            }
+            send(exchange, reply);
+        } catch (RuntimeException e) {
+            send(exchange, error(500, e.getMessage()));
+        }
+    }
+
+    private Reply createCourier(JsonObject body) {
+        String login = string(body, "login");
+        String password = string(body, "password");
+        String firstName = string(body, "firstName");
+        if (isBlank(login) || isBlank(password) || isBlank(firstName)) {
+            return error(400, "Недостаточно данных для создания учетной записи");
+        }
+        Courier courier = new Courier(courierIds.incrementAndGet(), login, password, firstName);
+        if (couriersByLogin.putIfAbsent(login, courier) != null) {
+            return error(409, "Этот логин уже используется. Попробуйте другой.");
+        }
+        couriersById.put(courier.id, courier);
+        return ok(201);
+    }
+
+    private Reply loginCourier(JsonObject body) {
+        String login = string(body, "login");
+        String password = string(body, "password");
+        if (isBlank(login) || isBlank(password)) {
+            return error(400, "Недостаточно данных для входа");
+        }
+        Courier courier = couriersByLogin.get(login);
+        if (courier == null || !courier.password.equals(password)) {
+            return error(404, "Учетная запись не найдена");
+        }
+        JsonObject json = new JsonObject();
+        json.addProperty("id", courier.id);
+        return new Reply(200, json);
+    }
+
+    private Reply deleteCourier(String rawId) {
+        Integer id = parseId(rawId.startsWith("/") ? rawId.substring(1) : rawId);
+        if (id == null) {
+            return error(400, "Недостаточно данных для удаления курьера");
+        }
+        Courier courier = couriersById.remove(id);
+        if (courier == null) {
+            return error(404, "Курьера с таким id нет.");
+        }
+        couriersByLogin.remove(courier.login, courier);
+        return ok(200);
+    }
+
+    private Reply createOrderReply(JsonObject body) {
+        JsonObject json = new JsonObject();
+        json.addProperty("track", createOrder(body));
+        return new Reply(201, json);
+    }
+
+    private int createOrder(JsonObject body) {
+        int id = orderIds.incrementAndGet();
+        int track = tracks.incrementAndGet();
+        JsonObject order = body.deepCopy();
+        order.addProperty("id", id);
+        order.add("courierId", null);
+        order.addProperty("track", track);
+        order.addProperty("status", 0);
+        order.addProperty("cancelled", false);
+        order.addProperty("finished", false);
+        order.addProperty("inDelivery", false);
+        ordersById.put(id, order);
+        orderIdsByTrack.put(track, id);
+        return track;
+    }
+
+    private Reply listOrders(Map<String, String> query) {
+        Integer limit = parseId(query.get("limit"));
+        Integer page = parseId(query.get("page"));
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_LIMIT : limit;
+        int pageNumber = page == null ? 0 : page;
+        List<JsonObject> all = new ArrayList<>(ordersById.values());
+        JsonArray orders = new JsonArray();
+        for (int i = pageNumber * pageSize; i < all.size() && i < (pageNumber + 1) * pageSize; i++) {
+            orders.add(all.get(i));
+        }
+        JsonObject pageInfo = new JsonObject();
+        pageInfo.addProperty("page", pageNumber);
+        pageInfo.addProperty("total", all.size());
+        pageInfo.addProperty("limit", pageSize);
+        JsonObject json = new JsonObject();
+        json.add("orders", orders);
+        json.add("pageInfo", pageInfo);
+        json.add("availableStations", new JsonArray());
+        return new Reply(200, json);
+    }
+
+    private Reply orderByTrack(String rawTrack) {
+        Integer track = parseId(rawTrack);
+        if (track == null) {
+            return error(400, "Недостаточно данных для поиска");
+        }
+        Integer id = orderIdsByTrack.get(track);
+        JsonObject order = id == null ? null : ordersById.get(id);
+        if (order == null) {
+            return error(404, "Заказ не найден");
+        }
+        JsonObject json = new JsonObject();
+        json.add("order", order);
+        return new Reply(200, json);
+    }
+
+    // Повторное завершение заказа не считается ошибкой
+    private Reply finishOrder(String rawId) {
+        Integer id = parseId(rawId);
+        if (id == null) {
+            return error(400, "Недостаточно данных для поиска");
+        }
+        JsonObject order = ordersById.get(id);
+        if (order == null) {
+            return error(404, "Заказа с таким id не существует");
+        }
+        synchronized (order) {
+            order.addProperty("finished", true);
+            order.addProperty("status", 2);
+        }
+        return ok(200);
+    }
+
+    private JsonObject readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+        }
+        String body = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        if (body.trim().isEmpty()) {
+            return new JsonObject();
+        }
+        JsonElement element = JsonParser.parseString(body);
+        return element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+    }
+
+    private void send(HttpExchange exchange, Reply reply) throws IOException {
+        byte[] bytes = gson.toJson(reply.body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(reply.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        try {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8");
+                String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+                query.put(key, value);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return query;
+    }
+
+    private static Integer parseId(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(raw.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String string(JsonObject body, String field) {
+        JsonElement element = body.get(field);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static Reply ok(int status) {
+        JsonObject json = new JsonObject();
+        json.addProperty("ok", true);
+        return new Reply(status, json);
+    }
+
+    private static Reply error(int status, String message) {
+        JsonObject json = new JsonObject();
+        json.addProperty("code", status);
+        json.addProperty("message", message);
+        return new Reply(status, json);
+    }
+
+    private static class Reply {
+        private final int status;
+        private final JsonObject body;
+
+        private Reply(int status, JsonObject body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static class Courier {
+        private final int id;
+        private final String login;
+        private final String password;
+        private final String firstName;
+
+        private Courier(int id, String login, String password, String firstName) {
+            this.id = id;
+            this.login = login;
+            this.password = password;
+            this.firstName = firstName;
+        }
+    }
+}
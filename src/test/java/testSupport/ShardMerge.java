@@ -0,0 +1,46 @@
+package testSupport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+// Собирает результаты Allure с агентов в один каталог для общего отчёта.
+// Имена файлов результатов уникальны (uuid), поэтому слияние - это копирование; общие файлы
+// (environment.properties, executor.json, categories.json) берутся из первой части, где они есть.
+// Запуск: mvn -Pshard-merge test-compile exec:java -Dshard.inputs=agent1/allure-results,agent2/allure-results
+// затем mvn allure:report (или allure:serve) по каталогу shard.output (по умолчанию target/allure-results).
+public class ShardMerge {
+    public static void main(String[] args) throws IOException {
+        String inputs = System.getProperty("shard.inputs");
+        if (inputs == null || inputs.trim().isEmpty()) {
+            throw new IllegalArgumentException("Не заданы каталоги результатов частей: -Dshard.inputs=dir1,dir2");
+        }
+        File output = new File(System.getProperty("shard.output", "target/allure-results"));
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("Не удалось создать каталог " + output);
+        }
+        int copied = 0;
+        int skipped = 0;
+        for (String input : inputs.split(",")) {
+            File dir = new File(input.trim());
+            File[] files = dir.listFiles(File::isFile);
+            if (files == null) {
+                throw new IOException("Нет каталога результатов " + dir);
+            }
+            if (dir.getCanonicalFile().equals(output.getCanonicalFile())) {
+                continue;
+            }
+            for (File file : files) {
+                File target = new File(output, file.getName());
+                if (target.exists()) {
+                    skipped++;
+                    continue;
+                }
+                Files.copy(file.toPath(), target.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+                copied++;
+            }
+        }
+        System.out.println("Результаты частей собраны в " + output + ": скопировано " + copied + ", уже были " + skipped);
+    }
+}
@@ -0,0 +1,162 @@
+package testSupport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Делит тестовые классы на shard.count частей примерно равной длительности для запуска на разных машинах.
+// Длительность метода - медиана stop - start по всем *-result.json из shard.history,
+// длительность класса - сумма его методов; класс без истории получает медиану известных классов.
+// shard.history обязателен и должен быть общим для всех агентов (артефакт CI, сетевой каталог): план строится на каждом
+// агенте отдельно, и по своим локальным результатам агенты разложили бы классы по-разному - часть пропустилась бы или прошла дважды.
+// Делим по классам, а не по методам: @BeforeClass/@AfterClass и пулы курьеров живут на уровне класса.
+// Самые долгие классы раскладываются первыми, каждый - в наименее загруженную часть.
+// Результат - shard.dir/shard-<N>.txt (N от 1) в формате includesFile для surefire и plan.txt с раскладкой.
+// Запуск части на агенте: mvn -Pshard test -Dshard.count=3 -Dshard.index=2 -Dshard.history=общий/allure-results
+public class ShardPlanner {
+    private static final Gson GSON = new Gson();
+
+    public static void main(String[] args) throws IOException {
+        int count = Integer.getInteger("shard.count", 2);
+        if (count < 1) {
+            throw new IllegalArgumentException("shard.count должен быть больше нуля: " + count);
+        }
+        String historyPath = System.getProperty("shard.history", "").trim();
+        if (historyPath.isEmpty()) {
+            throw new IllegalArgumentException("Не задан shard.history: нужен общий для всех агентов каталог allure-results, "
+                    + "иначе планы частей на агентах разойдутся");
+        }
+        File history = new File(historyPath);
+        if (!history.isDirectory()) {
+            throw new IllegalArgumentException("Каталог истории shard.history не найден: " + history);
+        }
+        File classes = new File(System.getProperty("shard.classes", "target/test-classes"));
+        File dir = new File(System.getProperty("shard.dir", "target/shards"));
+
+        List<String> testClasses = testClasses(classes);
+        Map<String, Long> durations = classDurations(history);
+        List<Long> known = new ArrayList<>();
+        for (String testClass : testClasses) {
+            if (durations.containsKey(testClass)) {
+                known.add(durations.get(testClass));
+            }
+        }
+        long fallback = known.isEmpty() ? 1000 : median(known);
+
+        List<String> ordered = new ArrayList<>(testClasses);
+        ordered.sort((a, b) -> {
+            int byDuration = Long.compare(durations.getOrDefault(b, fallback), durations.getOrDefault(a, fallback));
+            return byDuration != 0 ? byDuration : a.compareTo(b);
+        });
+        long[] loads = new long[count];
+        List<List<String>> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (String testClass : ordered) {
+            int lightest = 0;
+            for (int i = 1; i < count; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            shards.get(lightest).add(testClass);
+            loads[lightest] += durations.getOrDefault(testClass, fallback);
+        }
+
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Не удалось создать каталог " + dir);
+        }
+        StringBuilder plan = new StringBuilder("История: " + history + ", классов: " + testClasses.size()
+                + ", без истории: " + (testClasses.size() - known.size()) + " (по " + fallback + " мс)\n");
+        for (int i = 0; i < count; i++) {
+            List<String> lines = new ArrayList<>();
+            lines.add("# часть " + (i + 1) + " из " + count + ", ожидаемо " + loads[i] + " мс");
+            for (String testClass : shards.get(i)) {
+                lines.add(testClass.replace('.', '/') + ".java");
+            }
+            if (shards.get(i).isEmpty()) {
+                // Пустой includesFile surefire заменил бы шаблонами по умолчанию и запустил всё
+                lines.add("none/NoTestsInThisShard.java");
+            }
+            Files.write(new File(dir, "shard-" + (i + 1) + ".txt").toPath(), lines, StandardCharsets.UTF_8);
+            plan.append(String.format("часть %d: %7d мс  %s%n", i + 1, loads[i], shards.get(i)));
+        }
+        Files.write(new File(dir, "plan.txt").toPath(), plan.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.print(plan);
+    }
+
+    // Классы с теми же шаблонами имён, что у surefire по умолчанию, без вложенных
+    static List<String> testClasses(File classes) throws IOException {
+        if (!classes.isDirectory()) {
+            throw new IOException("Нет скомпилированных тестов в " + classes + ", сначала mvn test-compile");
+        }
+        Path root = classes.toPath();
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.map(path -> root.relativize(path).toString().replace(File.separatorChar, '/'))
+                    .filter(name -> name.endsWith(".class") && !name.contains("$"))
+                    .map(name -> name.substring(0, name.length() - ".class".length()))
+                    .filter(name -> {
+                        String simple = name.substring(name.lastIndexOf('/') + 1);
+                        return simple.startsWith("Test") || simple.endsWith("Test") || simple.endsWith("Tests") || simple.endsWith("TestCase");
+                    })
+                    .map(name -> name.replace('/', '.'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    static Map<String, Long> classDurations(File history) throws IOException {
+        Map<String, List<Long>> byMethod = new HashMap<>();
+        File[] files = history.listFiles((d, name) -> name.endsWith("-result.json"));
+        if (files != null) {
+            for (File file : files) {
+                Result result;
+                try {
+                    result = GSON.fromJson(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8), Result.class);
+                } catch (JsonSyntaxException e) {
+                    continue;
+                }
+                if (result == null || result.fullName == null || result.start <= 0 || result.stop < result.start) {
+                    continue;
+                }
+                byMethod.computeIfAbsent(result.fullName, key -> new ArrayList<>()).add(result.stop - result.start);
+            }
+        }
+        Map<String, Long> byClass = new TreeMap<>();
+        for (Map.Entry<String, List<Long>> entry : byMethod.entrySet()) {
+            String fullName = entry.getKey();
+            int dot = fullName.lastIndexOf('.');
+            if (dot > 0) {
+                byClass.merge(fullName.substring(0, dot), median(entry.getValue()), Long::sum);
+            }
+        }
+        return byClass;
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private static class Result {
+        String fullName;
+        long start;
+        long stop;
+    }
+}
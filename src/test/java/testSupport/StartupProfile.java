@@ -0,0 +1,139 @@
+package testSupport;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Профиль холодного старта форка: время от запуска JVM до первого ответа API по фазам.
+// Отметки ставят этот слушатель (начало запуска, первый тест), WarmUp, Specific (сборка спецификации REST-assured),
+// LatencyFilter (первый запрос и ответ) и AllureStartupListener (первый @Step). Каждая отметка запоминает время
+// с запуска JVM, число загруженных классов и время JIT, поэтому по разнице соседних отметок видно, куда ушло время:
+// загрузка классов и ткачество агента AspectJ до тестов, инициализация Groovy и REST-assured, JIT.
+// Отчёт - target/startup/<runId>-fork<N>.txt (-Dstartup.dir), пишется в конце запуска.
+// Подключается в surefire первым слушателем, чтобы начало запуска отмечалось до прогрева и чистки.
+public class StartupProfile extends RunListener {
+    public static final String DIR_PROPERTY = "startup.dir";
+
+    public static final String RUN_STARTED = "запуск тестов";
+    public static final String WARM_UP_FINISHED = "прогрев завершён";
+    public static final String FIRST_TEST = "первый тест";
+    public static final String SPEC_STARTED = "сборка спецификации REST-assured";
+    public static final String SPEC_BUILT = "спецификация собрана";
+    public static final String FIRST_STEP = "первый @Step";
+    public static final String FIRST_REQUEST = "первый запрос отправлен";
+    public static final String FIRST_RESPONSE = "первый ответ получен";
+
+    private static final Map<String, Mark> MARKS = new LinkedHashMap<>();
+    private static final Mark LOADED = Mark.now();
+
+    // Запоминается только первая отметка с таким именем
+    public static void mark(String name) {
+        synchronized (MARKS) {
+            if (!MARKS.containsKey(name)) {
+                MARKS.put(name, Mark.now());
+            }
+        }
+    }
+
+    // Время от запуска JVM до отметки, мс; -1, если отметки не было
+    public static long uptimeAt(String name) {
+        synchronized (MARKS) {
+            Mark mark = MARKS.get(name);
+            return mark == null ? -1 : mark.uptime;
+        }
+    }
+
+    @Override
+    public void testRunStarted(Description description) {
+        mark(RUN_STARTED);
+    }
+
+    @Override
+    public void testStarted(Description description) {
+        mark(FIRST_TEST);
+    }
+
+    @Override
+    public void testRunFinished(Result result) {
+        String report = report();
+        File dir = new File(System.getProperty(DIR_PROPERTY, "target/startup"));
+        File file = new File(dir, UniqueIds.runId() + "-fork" + UniqueIds.fork() + ".txt");
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("не удалось создать каталог " + dir);
+            }
+            Files.write(file.toPath(), report.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Не удалось записать профиль старта: " + e.getMessage());
+            return;
+        }
+        long firstResponse = uptimeAt(FIRST_RESPONSE);
+        if (firstResponse >= 0) {
+            System.out.println("Холодный старт: первый ответ API через " + firstResponse + " мс после запуска JVM, фазы - " + file);
+        }
+    }
+
+    public static String report() {
+        List<Map.Entry<String, Mark>> marks;
+        synchronized (MARKS) {
+            marks = new ArrayList<>(MARKS.entrySet());
+        }
+        marks.sort((a, b) -> Long.compare(a.getValue().nanos, b.getValue().nanos));
+        boolean agent = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-javaagent") && argument.contains("aspectjweaver"));
+        StringBuilder report = new StringBuilder(String.format("Агент AspectJ: %s, форк %d%n%-36s %9s %9s %8s %8s %8s%n",
+                agent ? "подключён" : "нет", UniqueIds.fork(),
+                "отметка", "от старта", "фаза,мс", "классов", "+классов", "+JIT,мс"));
+        Mark previous = new Mark(0, 0, 0, 0);
+        report.append(row("запуск JVM", previous, previous));
+        report.append(row("загрузка профиля (surefire, агент)", LOADED, previous));
+        previous = LOADED;
+        for (Map.Entry<String, Mark> entry : marks) {
+            report.append(row(entry.getKey(), entry.getValue(), previous));
+            previous = entry.getValue();
+        }
+        long request = uptimeAt(FIRST_REQUEST);
+        long response = uptimeAt(FIRST_RESPONSE);
+        if (request >= 0 && response >= request) {
+            report.append(String.format("Первый запрос: %d мс, до первого ответа от запуска JVM: %d мс%n", response - request, response));
+        }
+        return report.toString();
+    }
+
+    private static String row(String name, Mark mark, Mark previous) {
+        return String.format("%-36s %9d %9d %8d %8d %8d%n", name, mark.uptime, mark.uptime - previous.uptime,
+                mark.classes, mark.classes - previous.classes, mark.jit - previous.jit);
+    }
+
+    private static class Mark {
+        private final long nanos;
+        private final long uptime;
+        private final long classes;
+        private final long jit;
+
+        private Mark(long nanos, long uptime, long classes, long jit) {
+            this.nanos = nanos;
+            this.uptime = uptime;
+            this.classes = classes;
+            this.jit = jit;
+        }
+
+        private static Mark now() {
+            CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+            long jit = compilation != null && compilation.isCompilationTimeMonitoringSupported() ? compilation.getTotalCompilationTime() : 0;
+            return new Mark(System.nanoTime(), ManagementFactory.getRuntimeMXBean().getUptime(),
+                    ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount(), jit);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package testSupport;
+
+// Адрес тестируемого API задаётся одним свойством: -Dscooter.target=https://qa-scooter.praktikum-services.ru/
+// Значение "embedded" (по умолчанию) поднимает заглушку ScooterStub внутри JVM.
+// Тест может временно направить свои запросы на другой адрес (например, FaultProxy) через use(...):
+// подмена действует только в потоке теста.
+public class Target {
+    public static final String PROPERTY = "scooter.target";
+    public static final String EMBEDDED = "embedded";
+
+    private static final ThreadLocal<String> OVERRIDE = new ThreadLocal<>();
+
+    public static String baseUri() {
+        String override = OVERRIDE.get();
+        if (override != null) {
+            return override;
+        }
+        return isEmbedded() ? ScooterStub.shared().baseUri() : label();
+    }
+
+    public static boolean isRerouted() {
+        return OVERRIDE.get() != null;
+    }
+
+    public static boolean isEmbedded() {
+        return EMBEDDED.equals(label());
+    }
+
+    // Настроенная цель без учёта подмены: "embedded" или адрес из свойства
+    public static String label() {
+        String target = System.getProperty(PROPERTY, EMBEDDED).trim();
+        return target.isEmpty() ? EMBEDDED : target;
+    }
+
+    public static Routing use(String baseUri) {
+        String previous = OVERRIDE.get();
+        OVERRIDE.set(baseUri);
+        return new Routing(previous);
+    }
+
+    public static class Routing implements AutoCloseable {
+        private final String previous;
+
+        private Routing(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                OVERRIDE.remove();
+            } else {
+                OVERRIDE.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package testSupport;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Уникальные логины, имена и телефоны: идентификатор запуска + номер форка + счётчик внутри JVM.
+// Идентификатор запуска общий для всех форков одной сборки (scooter.runId), номер форка - scooter.fork.
+// В id запуска кроме времени есть случайная соль (в сборке её добавляет pom, без свойства - newRunId()):
+// сборки, начатые в одну секунду на разных агентах, не должны получить одинаковые логины и телефоны.
+public class UniqueIds {
+    public static final String RUN_ID_PROPERTY = "scooter.runId";
+    public static final String FORK_PROPERTY = "scooter.fork";
+    private static final String LOGIN_PREFIX = "at";
+    private static final String NAME_LETTERS = "абвгдежзиклмнопрстуфхцчшэюя";
+
+    private static final String RUN_ID = compact(System.getProperty(RUN_ID_PROPERTY, newRunId()));
+    private static final int FORK = parseFork(System.getProperty(FORK_PROPERTY, "0"));
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    // Время запуска и случайная соль, для запусков без scooter.runId (exec:java, координатор нагрузки)
+    public static String newRunId() {
+        return System.currentTimeMillis() + Integer.toString(new SecureRandom().nextInt(36 * 36 * 36 * 36), 36);
+    }
+
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    public static int fork() {
+        return FORK;
+    }
+
+    // Общий префикс всех логинов текущего запуска, по нему ищутся "осиротевшие" сущности
+    public static String runPrefix() {
+        return LOGIN_PREFIX + RUN_ID;
+    }
+
+    public static String login() {
+        return runPrefix() + "f" + FORK + "n" + SEQUENCE.incrementAndGet();
+    }
+
+    public static String firstName() {
+        long value = SEQUENCE.incrementAndGet() * 100 + FORK % 100;
+        StringBuilder name = new StringBuilder("Курьер");
+        do {
+            name.append(NAME_LETTERS.charAt((int) (value % NAME_LETTERS.length())));
+            value /= NAME_LETTERS.length();
+        } while (value > 0);
+        return name.toString();
+    }
+
+    public static String phone() {
+        long sequence = SEQUENCE.incrementAndGet() % 10_000_000L;
+        return String.format("+79%02d%07d", (FORK + RUN_ID.hashCode() % 100 + 100) % 100, sequence);
+    }
+
+    // Ведущее время в цифрах сжимается в base36, соль и прочее остаётся как есть
+    private static String compact(String runId) {
+        String trimmed = runId.trim().replaceAll("[^A-Za-z0-9]", "");
+        int digits = 0;
+        while (digits < trimmed.length() && digits < 18 && Character.isDigit(trimmed.charAt(digits))) {
+            digits++;
+        }
+        if (digits == 0) {
+            return trimmed;
+        }
+        return Long.toString(Long.parseLong(trimmed.substring(0, digits)), 36) + trimmed.substring(digits);
+    }
+
+    private static int parseFork(String fork) {
+        try {
+            return Integer.parseInt(fork.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package testSupport;
+
+import com.google.gson.Gson;
+import io.qameta.allure.Allure;
+import io.restassured.RestAssured;
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunListener;
+import testLogin.CourierLoginTest.CourierAssistant;
+import testOrder.ClientOrder;
+import testOrder.CreateOrder;
+import testOrder.Specific;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Прогрев форка перед первым тестом (-Dwarmup, в surefire включён по умолчанию): один раз на JVM собирает спецификацию REST-assured
+// вместе с Groovy и пулом соединений, гоняет сериализацию Gson, загружает классы с @Step (агент AspectJ ткёт их
+// при загрузке) и аспекты Allure и делает один запрос только на чтение - список заказов из одной записи.
+// Холодный старт оплачивает запрос прогрева, а не первый бюджетный вызов теста; сам запрос пишется
+// в гистограмму " (прогрев)" и в бюджеты и историю не попадает.
+// Ошибка прогрева не роняет запуск: тесты просто заплатят холодный старт сами.
+public class WarmUp extends RunListener {
+    public static final String ENABLED_PROPERTY = "warmup";
+
+    private static final AtomicBoolean DONE = new AtomicBoolean();
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "false"));
+    }
+
+    @Override
+    public void testRunStarted(Description description) {
+        if (enabled() && DONE.compareAndSet(false, true)) {
+            run();
+        }
+    }
+
+    public static void run() {
+        try {
+            for (Class<?> type : new Class<?>[]{ClientOrder.class, CourierAssistant.class}) {
+                Class.forName(type.getName(), true, type.getClassLoader());
+            }
+            Class.forName("io.qameta.allure.aspects.StepsAspects", true, WarmUp.class.getClassLoader());
+            Allure.getLifecycle();
+            new Gson().toJson(new CreateOrder("Прогрев", "Прогрев", "Прогрев, 1", "1", UniqueIds.phone(), "01.01.2030",
+                    "", new String[]{"BLACK"}, 1));
+            LatencyFilter.warmingUp(true);
+            try {
+                ApiResponse response = ApiResponse.of(RestAssured.given()
+                        .spec(Specific.requestSpec())
+                        .queryParam("limit", 1)
+                        .queryParam("page", 0)
+                        .get("/api/v1/orders"));
+                response.message();
+            } finally {
+                LatencyFilter.warmingUp(false);
+            }
+        } catch (Exception e) {
+            System.err.println("Прогрев не удался, тесты пойдут без него: " + e);
+        } finally {
+            StartupProfile.mark(StartupProfile.WARM_UP_FINISHED);
+        }
+    }
+}